@@ -0,0 +1,152 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.AnalyticsDto;
+import com.financetracker.dto.CategoryExpenseDto;
+import com.financetracker.dto.DailyExpenseDto;
+import com.financetracker.entity.Expense;
+import com.financetracker.entity.ExpenseCategory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the single-pass AnalyticsAccumulator with the stream-based
+ * aggregation it replaced, both over rows that are already in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsAccumulatorBenchmark {
+    
+    @Param({"1000", "100000"})
+    private int expenseCount;
+    
+    @Param({"30", "365"})
+    private int days;
+    
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<Expense> expenses;
+    private Map<Long, ExpenseCategory> categories;
+    
+    @Setup
+    public void setUp() {
+        endDate = LocalDate.of(2024, 12, 31);
+        startDate = endDate.minusDays(days - 1);
+        
+        List<ExpenseCategory> categoryList = new ArrayList<>();
+        for (long id = 1; id <= 12; id++) {
+            ExpenseCategory category = new ExpenseCategory();
+            category.setId(id);
+            category.setName("Category " + id);
+            category.setIcon("icon-" + id);
+            categoryList.add(category);
+        }
+        categories = categoryList.stream()
+                .collect(Collectors.toMap(ExpenseCategory::getId, c -> c));
+        
+        Random random = new Random(42);
+        expenses = new ArrayList<>(expenseCount);
+        for (int i = 0; i < expenseCount; i++) {
+            Expense expense = new Expense();
+            expense.setCategory(categoryList.get(random.nextInt(categoryList.size())));
+            expense.setAmount(BigDecimal.valueOf(100 + random.nextInt(50_000), 2));
+            expense.setExpenseDate(startDate.plusDays(random.nextInt(days)));
+            expenses.add(expense);
+        }
+    }
+    
+    @Benchmark
+    public AnalyticsDto accumulator() {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator(startDate, endDate);
+        for (Expense expense : expenses) {
+            accumulator.add(expense.getExpenseDate(), expense.getCategory().getId(), expense.getAmount());
+        }
+        return accumulator.toDto((id, total, count) -> {
+            ExpenseCategory category = categories.get(id);
+            return new CategoryExpenseDto(id, category.getName(), category.getIcon(), total, count);
+        });
+    }
+    
+    @Benchmark
+    public AnalyticsDto streams() {
+        BigDecimal totalExpenses = expenses.stream()
+                .map(Expense::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        
+        long dayCount = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        BigDecimal averageDailyExpense = totalExpenses.divide(
+                BigDecimal.valueOf(dayCount), 2, RoundingMode.HALF_UP);
+        
+        Map<Long, List<Expense>> expensesByCategory = expenses.stream()
+                .collect(Collectors.groupingBy(e -> e.getCategory().getId()));
+        
+        List<CategoryExpenseDto> categoryExpenses = expensesByCategory.entrySet().stream()
+                .map(entry -> {
+                    List<Expense> categoryExpenseList = entry.getValue();
+                    BigDecimal categoryTotal = categoryExpenseList.stream()
+                            .map(Expense::getAmount)
+                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+                    
+                    ExpenseCategory category = categoryExpenseList.get(0).getCategory();
+                    return new CategoryExpenseDto(
+                            category.getId(),
+                            category.getName(),
+                            category.getIcon(),
+                            categoryTotal,
+                            (long) categoryExpenseList.size()
+                    );
+                })
+                .sorted((a, b) -> b.getTotalAmount().compareTo(a.getTotalAmount()))
+                .collect(Collectors.toList());
+        
+        Map<String, BigDecimal> dailyExpensesMap = expenses.stream()
+                .collect(Collectors.groupingBy(
+                        e -> e.getExpenseDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
+                        Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
+                ));
+        
+        List<DailyExpenseDto> dailyExpenses = dailyExpensesMap.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new DailyExpenseDto(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        
+        Map<String, BigDecimal> monthlyExpenses = expenses.stream()
+                .collect(Collectors.groupingBy(
+                        e -> e.getExpenseDate().format(DateTimeFormatter.ofPattern("yyyy-MM")),
+                        Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
+                ));
+        
+        return new AnalyticsDto(
+                totalExpenses,
+                averageDailyExpense,
+                (long) expenses.size(),
+                categoryExpenses,
+                dailyExpenses,
+                monthlyExpenses
+        );
+    }
+}
@@ -0,0 +1,73 @@
+package com.financetracker.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-value cost of the AES-GCM field cipher against the legacy Jasypt
+ * cipher, which runs its password key derivation on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldCipherBenchmark {
+    
+    @Param({"Coffee with client", "Quarterly team offsite dinner at the downtown restaurant, split across three cost centres"})
+    private String plaintext;
+    
+    private AesGcmFieldCipher aesGcm;
+    private JasyptFieldCipher jasypt;
+    private String aesGcmCiphertext;
+    private String jasyptCiphertext;
+    
+    @Setup
+    public void setUp() throws Exception {
+        aesGcm = new AesGcmFieldCipher();
+        ReflectionTestUtils.setField(aesGcm, "configuredKey", "");
+        ReflectionTestUtils.setField(aesGcm, "encryptionPassword", "benchmark-password");
+        ReflectionTestUtils.setField(aesGcm, "keySalt", "expense-tracker-field-key");
+        aesGcm.init();
+        
+        jasypt = new JasyptFieldCipher();
+        ReflectionTestUtils.setField(jasypt, "encryptionPassword", "benchmark-password");
+        jasypt.init();
+        
+        aesGcmCiphertext = aesGcm.encrypt(plaintext);
+        jasyptCiphertext = jasypt.encrypt(plaintext);
+    }
+    
+    @Benchmark
+    public String aesGcmEncrypt() {
+        return aesGcm.encrypt(plaintext);
+    }
+    
+    @Benchmark
+    public String aesGcmDecrypt() {
+        return aesGcm.decrypt(aesGcmCiphertext);
+    }
+    
+    @Benchmark
+    public String jasyptEncrypt() {
+        return jasypt.encrypt(plaintext);
+    }
+    
+    @Benchmark
+    public String jasyptDecrypt() {
+        return jasypt.decrypt(jasyptCiphertext);
+    }
+}
@@ -1,26 +1,64 @@
 package com.financetracker.controller;
 
 import com.financetracker.dto.AnalyticsDto;
+import com.financetracker.dto.ComparisonDto;
+import com.financetracker.dto.ForecastDto;
+import com.financetracker.dto.PercentilesDto;
+import com.financetracker.dto.TimeSeriesDto;
+import com.financetracker.dto.TopSpendingDto;
+import com.financetracker.service.AnalyticsSection;
 import com.financetracker.service.AnalyticsService;
+import com.financetracker.service.ComparisonPeriod;
+import com.financetracker.service.ComparisonService;
+import com.financetracker.service.DataVersionService;
+import com.financetracker.service.ForecastService;
+import com.financetracker.service.SpendingInsightsService;
+import com.financetracker.service.TimeSeriesGranularity;
+import com.financetracker.service.TimeSeriesService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/analytics")
 @CrossOrigin(origins = "*")
 public class AnalyticsController {
     
+    private static final int MAX_TOP_LIMIT = 100;
+    
     @Autowired
     private AnalyticsService analyticsService;
     
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+    
+    @Autowired
+    private ComparisonService comparisonService;
+    
+    @Autowired
+    private SpendingInsightsService spendingInsightsService;
+    
+    @Autowired
+    private ForecastService forecastService;
+    
+    @Autowired
+    private DataVersionService dataVersionService;
+    
     @GetMapping
     public ResponseEntity<AnalyticsDto> getAnalytics(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String sections,
+            WebRequest request) {
         
         if (startDate == null) {
             startDate = LocalDate.now().minusMonths(1);
@@ -29,8 +67,140 @@ public class AnalyticsController {
             endDate = LocalDate.now();
         }
         
-        AnalyticsDto analytics = analyticsService.getAnalytics(startDate, endDate);
-        return ResponseEntity.ok(analytics);
+        Set<AnalyticsSection> selected = AnalyticsSection.parse(sections);
+        
+        // The range is part of the tag because the default window moves with the date
+        String variant = startDate + "-" + endDate;
+        if (!selected.equals(AnalyticsSection.ALL)) {
+            variant += "-" + AnalyticsSection.key(selected);
+        }
+        String etag = dataVersionService.getEtag(variant);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        AnalyticsDto analytics = analyticsService.getAnalytics(startDate, endDate, selected);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(analytics);
+    }
+    
+    @GetMapping("/timeseries")
+    public ResponseEntity<TimeSeriesDto> getTimeSeries(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(defaultValue = "false") boolean byCategory,
+            WebRequest request) {
+        
+        TimeSeriesGranularity bucketSize = TimeSeriesGranularity.from(granularity);
+        if (startDate == null) {
+            startDate = LocalDate.now().minusMonths(1);
+        }
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        List<Long> categories = categoryIds == null ? List.of() : categoryIds.stream().distinct().sorted().toList();
+        
+        String etag = dataVersionService.getEtag("ts-" + bucketSize.name().toLowerCase() + "-" + startDate + "-" + endDate
+                + "-" + categories.stream().map(String::valueOf).collect(Collectors.joining(".")) + "-" + byCategory);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        TimeSeriesDto series = timeSeriesService.getTimeSeries(bucketSize, startDate, endDate, categories, byCategory);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(series);
+    }
+    
+    @GetMapping("/compare")
+    public ResponseEntity<ComparisonDto> compare(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "previous,year") List<String> compareTo,
+            @RequestParam(defaultValue = "7,30") List<Integer> rolling,
+            @RequestParam(required = false) List<Long> categoryIds,
+            WebRequest request) {
+        
+        if (startDate == null) {
+            startDate = LocalDate.now().withDayOfMonth(1);
+        }
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        List<ComparisonPeriod> comparisons = compareTo.stream()
+                .filter(period -> !period.isBlank())
+                .map(ComparisonPeriod::from)
+                .distinct()
+                .toList();
+        List<Integer> windows = rolling.stream().distinct().sorted().toList();
+        List<Long> categories = categoryIds == null ? List.of() : categoryIds.stream().distinct().sorted().toList();
+        
+        String etag = dataVersionService.getEtag("cmp-" + startDate + "-" + endDate + "-"
+                + comparisons.stream().map(ComparisonPeriod::label).collect(Collectors.joining(".")) + "-"
+                + windows.stream().map(String::valueOf).collect(Collectors.joining(".")) + "-"
+                + categories.stream().map(String::valueOf).collect(Collectors.joining(".")));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        ComparisonDto comparison = comparisonService.compare(startDate, endDate, comparisons, windows, categories);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(comparison);
+    }
+    
+    @GetMapping("/top")
+    public ResponseEntity<TopSpendingDto> getTopSpending(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest request) {
+        
+        if (startDate == null) {
+            startDate = LocalDate.now().minusMonths(1);
+        }
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        limit = Math.max(1, Math.min(limit, MAX_TOP_LIMIT));
+        
+        String etag = dataVersionService.getEtag("top-" + startDate + "-" + endDate + "-" + limit);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        TopSpendingDto top = spendingInsightsService.getTopSpending(startDate, endDate, limit);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(top);
+    }
+    
+    @GetMapping("/percentiles")
+    public ResponseEntity<PercentilesDto> getPercentiles(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(defaultValue = "0.5,0.9,0.99") List<Double> quantiles,
+            WebRequest request) {
+        
+        if (startDate == null) {
+            startDate = LocalDate.now().minusMonths(1);
+        }
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        List<Long> categories = categoryIds == null ? List.of() : categoryIds.stream().distinct().sorted().toList();
+        List<Double> fractions = quantiles.stream().distinct().sorted().toList();
+        
+        String etag = dataVersionService.getEtag("pct-" + startDate + "-" + endDate + "-"
+                + categories.stream().map(String::valueOf).collect(Collectors.joining(".")) + "-"
+                + fractions.stream().map(String::valueOf).collect(Collectors.joining("_")));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        PercentilesDto percentiles = spendingInsightsService.getPercentiles(startDate, endDate, categories, fractions);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(percentiles);
+    }
+    
+    // No ETag: the forecast also changes with the date and with the nightly refit
+    @GetMapping("/forecast")
+    public ResponseEntity<ForecastDto> getForecast() {
+        return ResponseEntity.ok(forecastService.getForecast());
     }
 }
-
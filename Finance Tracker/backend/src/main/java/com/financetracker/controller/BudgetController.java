@@ -0,0 +1,69 @@
+package com.financetracker.controller;
+
+import com.financetracker.dto.BudgetAlertDto;
+import com.financetracker.dto.BudgetDto;
+import com.financetracker.dto.BudgetRequest;
+import com.financetracker.dto.BudgetStatusDto;
+import com.financetracker.service.BudgetAlertService;
+import com.financetracker.service.BudgetService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/budgets")
+@CrossOrigin(origins = "*")
+public class BudgetController {
+    
+    @Autowired
+    private BudgetService budgetService;
+    
+    @Autowired
+    private BudgetAlertService budgetAlertService;
+    
+    @GetMapping
+    public ResponseEntity<List<BudgetDto>> getAllBudgets() {
+        return ResponseEntity.ok(budgetService.getAllBudgets());
+    }
+    
+    @GetMapping("/status")
+    public ResponseEntity<List<BudgetStatusDto>> getBudgetStatus(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(budgetService.getBudgetStatus(date));
+    }
+    
+    @GetMapping("/alerts")
+    public ResponseEntity<List<BudgetAlertDto>> getRecentAlerts() {
+        return ResponseEntity.ok(budgetAlertService.getRecentAlerts());
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<BudgetDto> getBudgetById(@PathVariable Long id) {
+        return ResponseEntity.ok(budgetService.getBudgetById(id));
+    }
+    
+    @PostMapping
+    public ResponseEntity<BudgetDto> createBudget(@Valid @RequestBody BudgetRequest request) {
+        BudgetDto budget = budgetService.createBudget(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(budget);
+    }
+    
+    @PutMapping("/{id}")
+    public ResponseEntity<BudgetDto> updateBudget(
+            @PathVariable Long id,
+            @Valid @RequestBody BudgetRequest request) {
+        return ResponseEntity.ok(budgetService.updateBudget(id, request));
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteBudget(@PathVariable Long id) {
+        budgetService.deleteBudget(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.financetracker.controller;
+
+import com.financetracker.dto.CategoryRuleDto;
+import com.financetracker.dto.CategoryRuleRequest;
+import com.financetracker.dto.CategorySuggestionDto;
+import com.financetracker.service.CategorizationService;
+import com.financetracker.service.CategoryRuleService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/categorization")
+@CrossOrigin(origins = "*")
+public class CategorizationController {
+    
+    private static final int MAX_SUGGESTIONS = 10;
+    
+    @Autowired
+    private CategorizationService categorizationService;
+    
+    @Autowired
+    private CategoryRuleService categoryRuleService;
+    
+    @GetMapping("/suggest")
+    public ResponseEntity<List<CategorySuggestionDto>> suggest(
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String location,
+            @RequestParam(defaultValue = "3") int limit) {
+        limit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return ResponseEntity.ok(categorizationService.suggest(description, location, limit));
+    }
+    
+    @GetMapping("/rules")
+    public ResponseEntity<List<CategoryRuleDto>> getAllRules() {
+        return ResponseEntity.ok(categoryRuleService.getAllRules());
+    }
+    
+    @PostMapping("/rules")
+    public ResponseEntity<CategoryRuleDto> createRule(@Valid @RequestBody CategoryRuleRequest request) {
+        CategoryRuleDto rule = categoryRuleService.createRule(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(rule);
+    }
+    
+    @PutMapping("/rules/{id}")
+    public ResponseEntity<CategoryRuleDto> updateRule(
+            @PathVariable Long id,
+            @Valid @RequestBody CategoryRuleRequest request) {
+        return ResponseEntity.ok(categoryRuleService.updateRule(id, request));
+    }
+    
+    @DeleteMapping("/rules/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long id) {
+        categoryRuleService.deleteRule(id);
+        return ResponseEntity.noContent().build();
+    }
+}
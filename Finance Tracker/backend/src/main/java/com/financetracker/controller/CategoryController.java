@@ -1,10 +1,13 @@
 package com.financetracker.controller;
 
-import com.financetracker.entity.ExpenseCategory;
-import com.financetracker.repository.ExpenseCategoryRepository;
+import com.financetracker.dto.CategoryDto;
+import com.financetracker.service.CategoryRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -14,12 +17,17 @@ import java.util.List;
 public class CategoryController {
     
     @Autowired
-    private ExpenseCategoryRepository categoryRepository;
+    private CategoryRegistry categoryRegistry;
     
     @GetMapping
-    public ResponseEntity<List<ExpenseCategory>> getAllCategories() {
-        List<ExpenseCategory> categories = categoryRepository.findAll();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<CategoryDto>> getAllCategories(WebRequest request) {
+        String etag = categoryRegistry.getEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(categoryRegistry.getAll());
     }
 }
-
@@ -1,14 +1,30 @@
 package com.financetracker.controller;
 
+import com.financetracker.dto.BatchExpenseResponse;
 import com.financetracker.dto.ExpenseDto;
+import com.financetracker.dto.ExpensePageDto;
 import com.financetracker.dto.ExpenseRequest;
+import com.financetracker.dto.ExpenseSearchResultDto;
+import com.financetracker.service.DataVersionService;
+import com.financetracker.service.ExpenseBatchService;
+import com.financetracker.service.ExpenseExportService;
+import com.financetracker.service.ExpenseSearchQuery;
+import com.financetracker.service.ExpenseSearchService;
 import com.financetracker.service.ExpenseService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,19 +32,107 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ExpenseController {
     
+    private static final int MAX_ANOMALY_LIMIT = 200;
+    
     @Autowired
     private ExpenseService expenseService;
     
+    @Autowired
+    private ExpenseExportService exportService;
+    
+    @Autowired
+    private ExpenseBatchService batchService;
+    
+    @Autowired
+    private ExpenseSearchService searchService;
+    
+    @Autowired
+    private DataVersionService dataVersionService;
+    
     @GetMapping
-    public ResponseEntity<List<ExpenseDto>> getAllExpenses() {
-        List<ExpenseDto> expenses = expenseService.getAllExpenses();
-        return ResponseEntity.ok(expenses);
+    public ResponseEntity<List<ExpenseDto>> getAllExpenses(
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        String etag = dataVersionService.getEtag(expenseService.fieldsVariant(fields));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        List<ExpenseDto> expenses = expenseService.getAllExpenses(fields);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(expenses);
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<ExpensePageDto> getExpensePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String fields) {
+        ExpensePageDto page = expenseService.getExpensePage(cursor, limit, startDate, endDate, categoryId, fields);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<ExpenseSearchResultDto> searchExpenses(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        ExpenseSearchQuery query = new ExpenseSearchQuery(q, startDate, endDate, categoryId, minAmount, maxAmount);
+        return ResponseEntity.ok(searchService.search(query, page, size, fields));
+    }
+    
+    @GetMapping("/anomalies")
+    public ResponseEntity<List<ExpenseDto>> getAnomalies(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        
+        if (startDate == null) {
+            startDate = LocalDate.now().minusMonths(3);
+        }
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        limit = Math.max(1, Math.min(limit, MAX_ANOMALY_LIMIT));
+        
+        String etag = dataVersionService.getEtag("anomalies-" + startDate + "-" + endDate + "-" + limit);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        List<ExpenseDto> anomalies = expenseService.getAnomalies(startDate, endDate, limit);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(anomalies);
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestParam(defaultValue = ExpenseExportService.FORMAT_NDJSON) String format) {
+        StreamingResponseBody body = exportService.export(format);
+        boolean csv = ExpenseExportService.FORMAT_CSV.equals(format);
+        return ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expenses." + format + "\"")
+                .body(body);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ExpenseDto> getExpenseById(@PathVariable Long id) {
+    public ResponseEntity<ExpenseDto> getExpenseById(@PathVariable Long id, WebRequest request) {
+        // The tag is per user, not per expense, so it must not answer for someone else's id
+        expenseService.checkAccess(id);
+        String etag = dataVersionService.getEtag(null);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         ExpenseDto expense = expenseService.getExpenseById(id);
-        return ResponseEntity.ok(expense);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(expense);
     }
     
     @PostMapping
@@ -37,6 +141,12 @@ public class ExpenseController {
         return ResponseEntity.status(HttpStatus.CREATED).body(expense);
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<BatchExpenseResponse> createExpenses(@RequestBody List<ExpenseRequest> requests) {
+        BatchExpenseResponse response = batchService.createExpenses(requests);
+        return ResponseEntity.ok(response);
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<ExpenseDto> updateExpense(
             @PathVariable Long id,
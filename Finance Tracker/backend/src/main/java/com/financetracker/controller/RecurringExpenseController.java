@@ -0,0 +1,34 @@
+package com.financetracker.controller;
+
+import com.financetracker.dto.RecurringExpenseDto;
+import com.financetracker.dto.UpcomingChargeDto;
+import com.financetracker.service.RecurringExpenseService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/recurring")
+@CrossOrigin(origins = "*")
+public class RecurringExpenseController {
+    
+    private static final int MAX_UPCOMING_DAYS = 366;
+    
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+    
+    @GetMapping
+    public ResponseEntity<List<RecurringExpenseDto>> getRecurringExpenses(
+            @RequestParam(defaultValue = "false") boolean includeInactive) {
+        return ResponseEntity.ok(recurringExpenseService.getRecurringExpenses(includeInactive));
+    }
+    
+    @GetMapping("/upcoming")
+    public ResponseEntity<List<UpcomingChargeDto>> getUpcomingCharges(
+            @RequestParam(defaultValue = "30") int days) {
+        days = Math.max(1, Math.min(days, MAX_UPCOMING_DAYS));
+        return ResponseEntity.ok(recurringExpenseService.getUpcomingCharges(days));
+    }
+}
@@ -0,0 +1,19 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Estimated transaction amount percentiles, keyed like {@code p50} or
+ * {@code p99.9}, for one category or (without a category) for all of them.
+ */
+@Data
+public class AmountDistributionDto {
+    private Long categoryId;
+    private String categoryName;
+    private String categoryIcon;
+    private Long transactionCount;
+    private Map<String, BigDecimal> percentiles;
+}
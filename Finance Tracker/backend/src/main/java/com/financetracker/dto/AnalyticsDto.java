@@ -17,21 +17,3 @@ public class AnalyticsDto {
     private List<DailyExpenseDto> dailyExpenses;
     private Map<String, BigDecimal> monthlyExpenses;
 }
-
-@Data
-@AllArgsConstructor
-public class CategoryExpenseDto {
-    private Long categoryId;
-    private String categoryName;
-    private String categoryIcon;
-    private BigDecimal totalAmount;
-    private Long transactionCount;
-}
-
-@Data
-@AllArgsConstructor
-public class DailyExpenseDto {
-    private String date;
-    private BigDecimal amount;
-}
-
@@ -0,0 +1,18 @@
+package com.financetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchExpenseResponse {
+    private int received;
+    private int created;
+    // Rows without a category ID that were given one by the categorization engine
+    private int autoCategorized;
+    private List<BatchRowError> failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
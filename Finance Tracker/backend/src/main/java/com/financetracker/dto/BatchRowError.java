@@ -0,0 +1,13 @@
+package com.financetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchRowError {
+    private int row;
+    private List<String> errors;
+}
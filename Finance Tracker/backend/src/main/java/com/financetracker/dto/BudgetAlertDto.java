@@ -0,0 +1,21 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class BudgetAlertDto {
+    private Long userId;
+    private Long budgetId;
+    private Long categoryId;
+    private String categoryName;
+    private String period;
+    private LocalDate periodStart;
+    private Integer threshold;
+    private BigDecimal spent;
+    private BigDecimal limit;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class BudgetDto {
+    private Long id;
+    private Long categoryId;
+    private String categoryName;
+    private String categoryIcon;
+    private BigDecimal amount;
+    private String period;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
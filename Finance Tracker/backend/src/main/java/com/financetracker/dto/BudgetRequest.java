@@ -0,0 +1,27 @@
+package com.financetracker.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class BudgetRequest {
+    @NotNull(message = "Category ID is required")
+    private Long categoryId;
+    
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+    
+    @Pattern(regexp = "(?i)WEEKLY|MONTHLY|YEARLY", message = "Period must be WEEKLY, MONTHLY or YEARLY")
+    private String period = "MONTHLY";
+    
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+    
+    private LocalDate endDate;
+}
@@ -0,0 +1,23 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class BudgetStatusDto {
+    private Long budgetId;
+    private Long categoryId;
+    private String categoryName;
+    private String categoryIcon;
+    private String period;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private BigDecimal limit;
+    private BigDecimal spent;
+    private BigDecimal remaining;
+    private BigDecimal percentUsed;
+    private Long transactionCount;
+    private boolean exceeded;
+}
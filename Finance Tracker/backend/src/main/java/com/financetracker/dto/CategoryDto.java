@@ -0,0 +1,14 @@
+package com.financetracker.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class CategoryDto {
+    Long id;
+    String name;
+    String description;
+    String icon;
+    LocalDateTime createdAt;
+}
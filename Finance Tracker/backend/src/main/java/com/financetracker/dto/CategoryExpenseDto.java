@@ -0,0 +1,16 @@
+package com.financetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class CategoryExpenseDto {
+    private Long categoryId;
+    private String categoryName;
+    private String categoryIcon;
+    private BigDecimal totalAmount;
+    private Long transactionCount;
+}
@@ -0,0 +1,20 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class CategoryForecastDto {
+    private Long categoryId;
+    private String categoryName;
+    private String categoryIcon;
+    private BigDecimal monthToDate;
+    // Month to date plus the expected spend for the rest of the month
+    private BigDecimal endOfMonth;
+    // Expected spend over the 30 days after today
+    private BigDecimal next30Days;
+    // Last day the stored model was fitted on; null when the category has no model yet
+    private LocalDate modelFittedThrough;
+}
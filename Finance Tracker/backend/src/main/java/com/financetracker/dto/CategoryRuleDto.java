@@ -0,0 +1,12 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+@Data
+public class CategoryRuleDto {
+    private Long id;
+    private String pattern;
+    private Long categoryId;
+    private String categoryName;
+    private String categoryIcon;
+}
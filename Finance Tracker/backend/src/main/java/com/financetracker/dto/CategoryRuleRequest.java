@@ -0,0 +1,16 @@
+package com.financetracker.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class CategoryRuleRequest {
+    @NotBlank(message = "Pattern is required")
+    @Size(max = 100, message = "Pattern must be at most 100 characters")
+    private String pattern;
+    
+    @NotNull(message = "Category ID is required")
+    private Long categoryId;
+}
@@ -0,0 +1,15 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class CategorySeriesDto {
+    private Long categoryId;
+    private String categoryName;
+    private String categoryIcon;
+    private List<BigDecimal> totals;
+    private List<Long> counts;
+}
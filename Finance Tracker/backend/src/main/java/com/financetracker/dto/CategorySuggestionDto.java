@@ -0,0 +1,18 @@
+package com.financetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CategorySuggestionDto {
+    private Long categoryId;
+    private String categoryName;
+    private String categoryIcon;
+    // "rule" or "model"
+    private String source;
+    // 1.0 for a rule match, the posterior probability for a model guess
+    private double confidence;
+    // The rule pattern that matched, null for model guesses
+    private String matchedPattern;
+}
@@ -0,0 +1,16 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class ComparisonDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    // "current" first, then each requested comparison
+    private List<PeriodDto> periods;
+    private WindowStatsDto total;
+    private List<WindowStatsDto> categories;
+}
@@ -0,0 +1,13 @@
+package com.financetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class DailyExpenseDto {
+    private String date;
+    private BigDecimal amount;
+}
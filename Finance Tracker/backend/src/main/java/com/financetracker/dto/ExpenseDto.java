@@ -1,11 +1,16 @@
 package com.financetracker.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 
 @Data
+@NoArgsConstructor
 public class ExpenseDto {
     private Long id;
     private Long categoryId;
@@ -18,5 +23,38 @@ public class ExpenseDto {
     private String location;
     private String notes;
     private LocalDate createdAt;
+    private Double anomalyScore;
+    private List<String> anomalyReasons;
+    
+    /**
+     * Slim projection used by list queries that skip paymentMethod, location and notes.
+     */
+    public ExpenseDto(Long id, Long categoryId, BigDecimal amount, String description,
+                      LocalDate expenseDate, LocalDateTime createdAt, Double anomalyScore, String anomalyReasons) {
+        this.id = id;
+        this.categoryId = categoryId;
+        this.amount = amount;
+        this.description = description;
+        this.expenseDate = expenseDate;
+        this.createdAt = createdAt != null ? createdAt.toLocalDate() : null;
+        this.anomalyScore = anomalyScore;
+        this.anomalyReasons = toReasonList(anomalyReasons);
+    }
+    
+    /**
+     * Detail projection; optional fields that were not selected arrive as null.
+     */
+    public ExpenseDto(Long id, Long categoryId, BigDecimal amount, String description, LocalDate expenseDate,
+                      String paymentMethod, String location, String notes,
+                      LocalDateTime createdAt, Double anomalyScore, String anomalyReasons) {
+        this(id, categoryId, amount, description, expenseDate, createdAt, anomalyScore, anomalyReasons);
+        this.paymentMethod = paymentMethod;
+        this.location = location;
+        this.notes = notes;
+    }
+    
+    public static List<String> toReasonList(String anomalyReasons) {
+        return anomalyReasons != null ? Arrays.asList(anomalyReasons.split(",")) : null;
+    }
 }
 
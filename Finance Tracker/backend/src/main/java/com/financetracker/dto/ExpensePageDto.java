@@ -0,0 +1,13 @@
+package com.financetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ExpensePageDto {
+    private List<ExpenseDto> items;
+    private String nextCursor;
+}
@@ -2,6 +2,7 @@ package com.financetracker.dto;
 
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -21,6 +22,7 @@ public class ExpenseRequest {
     @NotNull(message = "Expense date is required")
     private LocalDate expenseDate;
     
+    @Size(max = 100, message = "Payment method must be at most 100 characters")
     private String paymentMethod;
     private String location;
     private String notes;
@@ -0,0 +1,17 @@
+package com.financetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ExpenseSearchResultDto {
+    private List<ExpenseDto> items;
+    private long total;
+    // False when total is a lower bound
+    private boolean totalExact;
+    private int page;
+    private int size;
+}
@@ -0,0 +1,17 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class ForecastDto {
+    private LocalDate asOf;
+    private LocalDate monthEnd;
+    private BigDecimal monthToDate;
+    private BigDecimal endOfMonth;
+    private BigDecimal next30Days;
+    private List<CategoryForecastDto> categories;
+}
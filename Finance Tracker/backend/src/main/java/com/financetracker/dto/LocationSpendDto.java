@@ -0,0 +1,14 @@
+package com.financetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class LocationSpendDto {
+    private String location;
+    private BigDecimal totalAmount;
+    private Long transactionCount;
+}
@@ -0,0 +1,16 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class PercentilesDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    // Every estimate is within this fraction of the true amount
+    private double relativeAccuracy;
+    private AmountDistributionDto overall;
+    private List<AmountDistributionDto> categories;
+}
@@ -0,0 +1,14 @@
+package com.financetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class PeriodDto {
+    private String label;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
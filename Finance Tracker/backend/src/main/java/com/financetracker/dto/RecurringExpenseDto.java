@@ -0,0 +1,25 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class RecurringExpenseDto {
+    private String merchant;
+    private Long categoryId;
+    private String categoryName;
+    private String categoryIcon;
+    // WEEKLY, BIWEEKLY, MONTHLY, QUARTERLY, YEARLY or CUSTOM
+    private String period;
+    private double periodDays;
+    private BigDecimal averageAmount;
+    private BigDecimal lastAmount;
+    private int occurrences;
+    private LocalDate firstDate;
+    private LocalDate lastDate;
+    private LocalDate nextExpectedDate;
+    // False once the expected charge is overdue by more than a quarter of the period
+    private boolean active;
+}
@@ -0,0 +1,23 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dense, column-oriented series: {@code buckets} holds the first day of every
+ * bucket in the range and the other lists are aligned with it, with zeros
+ * for empty buckets.
+ */
+@Data
+public class TimeSeriesDto {
+    private String granularity;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<LocalDate> buckets;
+    private List<BigDecimal> totals;
+    private List<Long> counts;
+    private List<CategorySeriesDto> categories;
+}
@@ -0,0 +1,17 @@
+package com.financetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class UpcomingChargeDto {
+    private String merchant;
+    private Long categoryId;
+    private String categoryName;
+    private LocalDate expectedDate;
+    private BigDecimal expectedAmount;
+}
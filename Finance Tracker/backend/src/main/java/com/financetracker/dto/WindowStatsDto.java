@@ -0,0 +1,25 @@
+package com.financetracker.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Window figures for all expenses (no category) or for one category.
+ * {@code totals} and {@code counts} are keyed by period label,
+ * {@code changePercent} by comparison label (null when that period is zero),
+ * and {@code rollingAverages} by window such as {@code 7d}, with one value
+ * per day of the current range.
+ */
+@Data
+public class WindowStatsDto {
+    private Long categoryId;
+    private String categoryName;
+    private String categoryIcon;
+    private Map<String, BigDecimal> totals;
+    private Map<String, Long> counts;
+    private Map<String, BigDecimal> changePercent;
+    private Map<String, List<BigDecimal>> rollingAverages;
+}
@@ -0,0 +1,54 @@
+package com.financetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A budget threshold that was crossed in one period. The unique key makes
+ * each (budget, period, threshold) alert fire at most once.
+ */
+@Entity
+@Table(name = "budget_alerts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_alert_budget_period_threshold",
+                columnNames = {"budget_id", "period_start", "threshold"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetAlert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false, length = 20)
+    private String period;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private Integer threshold;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal spent;
+
+    @Column(name = "limit_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal limitAmount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,45 @@
+package com.financetracker.entity;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Budget periods, stored by name in {@code Budget.period}. Weeks start on Monday.
+ */
+public enum BudgetPeriod {
+    WEEKLY,
+    MONTHLY,
+    YEARLY;
+    
+    public LocalDate startOf(LocalDate date) {
+        switch (this) {
+            case WEEKLY:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case YEARLY:
+                return date.withDayOfYear(1);
+            default:
+                return date.withDayOfMonth(1);
+        }
+    }
+    
+    public LocalDate endOf(LocalDate date) {
+        LocalDate start = startOf(date);
+        switch (this) {
+            case WEEKLY:
+                return start.plusDays(6);
+            case YEARLY:
+                return start.plusYears(1).minusDays(1);
+            default:
+                return start.plusMonths(1).minusDays(1);
+        }
+    }
+    
+    public static BudgetPeriod from(String period) {
+        try {
+            return valueOf(period.toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException("Unknown budget period: " + period);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.financetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running spend per user, category and budget period, maintained by expense
+ * writes so budget status never has to scan expenses.
+ */
+@Entity
+@Table(name = "budget_spend_counters",
+        uniqueConstraints = @UniqueConstraint(name = "uk_spend_user_period_category",
+                columnNames = {"user_id", "period", "period_start", "category_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetSpendCounter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 20)
+    private String period;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+}
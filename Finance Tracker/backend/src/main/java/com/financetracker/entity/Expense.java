@@ -23,7 +23,7 @@ public class Expense {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private ExpenseCategory category;
 
@@ -36,7 +36,7 @@ public class Expense {
     @Column(name = "expense_date", nullable = false)
     private LocalDate expenseDate;
 
-    @Column(name = "payment_method", length = 50)
+    @Column(name = "payment_method", length = 255)
     private String paymentMethod;
 
     @Column(length = 255)
@@ -45,6 +45,13 @@ public class Expense {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    // z-score of the log amount against the category when it was saved, and the anomaly reasons if any
+    @Column(name = "anomaly_score")
+    private Double anomalyScore;
+
+    @Column(name = "anomaly_reasons", length = 50)
+    private String anomalyReasons;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -0,0 +1,41 @@
+package com.financetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One bucket of the per-day amount histogram of a user and category. Bucket
+ * boundaries grow geometrically (see {@code AmountSketch}), so the buckets
+ * of any date range merge into a quantile sketch by summing counts.
+ */
+@Entity
+@Table(name = "expense_amount_bins",
+        uniqueConstraints = @UniqueConstraint(name = "uk_amount_bin_user_date_category_bin",
+                columnNames = {"user_id", "expense_date", "category_id", "bin_index"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseAmountBin {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expense_date", nullable = false)
+    private LocalDate expenseDate;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "bin_index", nullable = false)
+    private Integer binIndex;
+
+    @Column(name = "bin_count", nullable = false)
+    private Long binCount;
+}
@@ -0,0 +1,60 @@
+package com.financetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fitted Holt-Winters state of one user's daily spend in one category, as
+ * of the end of {@code fittedThrough}. Written by the nightly forecast fit.
+ */
+@Entity
+@Table(name = "forecast_models",
+        uniqueConstraints = @UniqueConstraint(name = "uk_forecast_user_category",
+                columnNames = {"user_id", "category_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForecastModel {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "fitted_through", nullable = false)
+    private LocalDate fittedThrough;
+
+    @Column(nullable = false)
+    private Double alpha;
+
+    @Column(nullable = false)
+    private Double beta;
+
+    @Column(nullable = false)
+    private Double gamma;
+
+    @Column(nullable = false)
+    private Double level;
+
+    @Column(nullable = false)
+    private Double trend;
+
+    // Seven comma separated seasonal offsets, Monday first
+    @Column(nullable = false, length = 255)
+    private String seasonal;
+
+    @Column(name = "residual_std_dev", nullable = false)
+    private Double residualStdDev;
+
+    @Column(name = "fitted_at", nullable = false)
+    private LocalDateTime fittedAt;
+}
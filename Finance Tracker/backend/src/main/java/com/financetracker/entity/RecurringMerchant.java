@@ -0,0 +1,88 @@
+package com.financetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Running state of one merchant of a user, folded from the user's expenses
+ * by the recurring-expense detector: the most recent charge dates, the
+ * interval between charges derived from them and Welford statistics of the
+ * amounts.
+ */
+@Entity
+@Table(name = "recurring_merchants",
+        uniqueConstraints = @UniqueConstraint(name = "uk_recurring_user_merchant",
+                columnNames = {"user_id", "merchant_key"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringMerchant {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Normalised description (letters only, lower case) that groups the charges
+    @Column(name = "merchant_key", nullable = false, length = 100)
+    private String merchantKey;
+
+    // Description of the latest charge, for display
+    @Column(name = "merchant_name", length = 255)
+    private String merchantName;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "first_date", nullable = false)
+    private LocalDate firstDate;
+
+    @Column(name = "last_date", nullable = false)
+    private LocalDate lastDate;
+
+    @Column(nullable = false)
+    private Integer occurrences;
+
+    // Comma separated ISO dates of the latest distinct charge days, oldest first
+    @Column(name = "recent_dates", nullable = false, length = 255)
+    private String recentDates;
+
+    @Column(name = "interval_count", nullable = false)
+    private Integer intervalCount;
+
+    // Median days between the recent charges and mean absolute deviation from it
+    @Column(name = "period_days", nullable = false)
+    private Double periodDays;
+
+    @Column(name = "period_deviation", nullable = false)
+    private Double periodDeviation;
+
+    @Column(name = "amount_mean", nullable = false)
+    private Double amountMean;
+
+    // Sum of squared differences from the mean (Welford)
+    @Column(name = "amount_m2", nullable = false)
+    private Double amountM2;
+
+    @Column(name = "last_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal lastAmount;
+
+    @Column(nullable = false)
+    private Boolean recurring;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+}
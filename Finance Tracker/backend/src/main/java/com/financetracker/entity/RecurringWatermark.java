@@ -0,0 +1,23 @@
+package com.financetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Highest expense id of a user already folded into its recurring merchants.
+ */
+@Entity
+@Table(name = "recurring_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringWatermark {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_expense_id", nullable = false)
+    private Long lastExpenseId;
+}
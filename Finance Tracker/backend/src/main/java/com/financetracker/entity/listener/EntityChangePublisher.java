@@ -0,0 +1,34 @@
+package com.financetracker.entity.listener;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that turns row changes into {@link EntityChangedEvent}s,
+ * so caches in other layers can react without the entities depending on them.
+ */
+@Component
+public class EntityChangePublisher {
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    public void onPersisted(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, EntityChangedEvent.Type.PERSISTED));
+    }
+    
+    @PostUpdate
+    public void onUpdated(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, EntityChangedEvent.Type.UPDATED));
+    }
+    
+    @PostRemove
+    public void onRemoved(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, EntityChangedEvent.Type.REMOVED));
+    }
+}
@@ -0,0 +1,20 @@
+package com.financetracker.entity.listener;
+
+import lombok.Value;
+
+/**
+ * Published synchronously, inside the writing transaction, when an entity
+ * that carries {@link EntityChangePublisher} is inserted, updated or deleted.
+ */
+@Value
+public class EntityChangedEvent {
+    
+    public enum Type {
+        PERSISTED,
+        UPDATED,
+        REMOVED
+    }
+    
+    Object entity;
+    Type type;
+}
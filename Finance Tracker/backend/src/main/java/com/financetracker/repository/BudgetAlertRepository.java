@@ -0,0 +1,35 @@
+package com.financetracker.repository;
+
+import com.financetracker.entity.BudgetAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
+    // Returns 1 when the alert is new, 0 when it was already raised
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO budget_alerts (user_id, budget_id, category_id, period, period_start, " +
+            "threshold, spent, limit_amount, created_at) VALUES (:userId, :budgetId, :categoryId, :period, " +
+            ":periodStart, :threshold, :spent, :limitAmount, :createdAt)", nativeQuery = true)
+    int insertIfAbsent(
+        @Param("userId") Long userId,
+        @Param("budgetId") Long budgetId,
+        @Param("categoryId") Long categoryId,
+        @Param("period") String period,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("threshold") int threshold,
+        @Param("spent") BigDecimal spent,
+        @Param("limitAmount") BigDecimal limitAmount,
+        @Param("createdAt") LocalDateTime createdAt
+    );
+    
+    List<BudgetAlert> findTop100ByUserIdOrderByCreatedAtDescIdDesc(Long userId);
+}
@@ -0,0 +1,15 @@
+package com.financetracker.repository;
+
+import com.financetracker.entity.Budget;
+import com.financetracker.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+    List<Budget> findByUserOrderByIdAsc(User user);
+    
+    List<Budget> findByUserIdOrderByIdAsc(Long userId);
+}
@@ -0,0 +1,64 @@
+package com.financetracker.repository;
+
+import com.financetracker.entity.BudgetSpendCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BudgetSpendCounterRepository extends JpaRepository<BudgetSpendCounter, Long> {
+    // Atomic increment (or decrement with negative values) of one counter
+    @Modifying
+    @Query(value = "INSERT INTO budget_spend_counters (user_id, period, period_start, category_id, total_amount, transaction_count) " +
+            "VALUES (:userId, :period, :periodStart, :categoryId, :amount, :count) " +
+            "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+            "transaction_count = transaction_count + VALUES(transaction_count)", nativeQuery = true)
+    void applyDelta(
+        @Param("userId") Long userId,
+        @Param("period") String period,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("categoryId") Long categoryId,
+        @Param("amount") BigDecimal amount,
+        @Param("count") long count
+    );
+    
+    @Modifying
+    @Query(value = "DELETE FROM budget_spend_counters WHERE user_id = :userId AND period = :period " +
+            "AND period_start = :periodStart AND category_id = :categoryId AND transaction_count = 0", nativeQuery = true)
+    void deleteEmptyCounter(
+        @Param("userId") Long userId,
+        @Param("period") String period,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("categoryId") Long categoryId
+    );
+    
+    @Modifying
+    @Query(value = "DELETE FROM budget_spend_counters WHERE user_id = :userId", nativeQuery = true)
+    void deleteByUserId(@Param("userId") Long userId);
+    
+    Optional<BudgetSpendCounter> findByUserIdAndPeriodAndPeriodStartAndCategoryId(
+        Long userId,
+        String period,
+        LocalDate periodStart,
+        Long categoryId
+    );
+    
+    // Counters of the weekly, monthly and yearly periods containing one date
+    @Query("SELECT c FROM BudgetSpendCounter c WHERE c.userId = :userId AND (" +
+           "(c.period = 'WEEKLY' AND c.periodStart = :weekStart) OR " +
+           "(c.period = 'MONTHLY' AND c.periodStart = :monthStart) OR " +
+           "(c.period = 'YEARLY' AND c.periodStart = :yearStart))")
+    List<BudgetSpendCounter> findCurrentCounters(
+        @Param("userId") Long userId,
+        @Param("weekStart") LocalDate weekStart,
+        @Param("monthStart") LocalDate monthStart,
+        @Param("yearStart") LocalDate yearStart
+    );
+}
@@ -0,0 +1,20 @@
+package com.financetracker.repository;
+
+import com.financetracker.entity.CategoryRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CategoryRuleRepository extends JpaRepository<CategoryRule, Long> {
+    List<CategoryRule> findByUserIdOrderByIdAsc(Long userId);
+    
+    long countByUserId(Long userId);
+    
+    // (pattern, category id) of a user's rules in creation order, for compiling the matcher
+    @Query("SELECT r.pattern, r.category.id FROM CategoryRule r WHERE r.user.id = :userId ORDER BY r.id")
+    List<Object[]> findPatternsByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,58 @@
+package com.financetracker.repository;
+
+import com.financetracker.entity.ExpenseAmountBin;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExpenseAmountBinRepository extends JpaRepository<ExpenseAmountBin, Long> {
+    // Atomic increment (or decrement with a negative count) of one bin
+    @Modifying
+    @Query(value = "INSERT INTO expense_amount_bins (user_id, expense_date, category_id, bin_index, bin_count) " +
+            "VALUES (:userId, :expenseDate, :categoryId, :binIndex, :count) " +
+            "ON DUPLICATE KEY UPDATE bin_count = bin_count + VALUES(bin_count)", nativeQuery = true)
+    void applyDelta(
+        @Param("userId") Long userId,
+        @Param("expenseDate") LocalDate expenseDate,
+        @Param("categoryId") Long categoryId,
+        @Param("binIndex") int binIndex,
+        @Param("count") long count
+    );
+    
+    @Modifying
+    @Query(value = "DELETE FROM expense_amount_bins WHERE user_id = :userId AND expense_date = :expenseDate " +
+            "AND category_id = :categoryId AND bin_index = :binIndex AND bin_count = 0", nativeQuery = true)
+    void deleteEmptyBin(
+        @Param("userId") Long userId,
+        @Param("expenseDate") LocalDate expenseDate,
+        @Param("categoryId") Long categoryId,
+        @Param("binIndex") int binIndex
+    );
+    
+    @Modifying
+    @Query(value = "DELETE FROM expense_amount_bins WHERE user_id = :userId", nativeQuery = true)
+    void deleteByUserId(@Param("userId") Long userId);
+    
+    // Histograms of a date range merged in the database: (category id, bin index, count)
+    @Query("SELECT b.categoryId, b.binIndex, SUM(b.binCount) FROM ExpenseAmountBin b WHERE b.userId = :userId AND b.expenseDate BETWEEN :startDate AND :endDate GROUP BY b.categoryId, b.binIndex")
+    List<Object[]> getMergedBins(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    @Query("SELECT b.categoryId, b.binIndex, SUM(b.binCount) FROM ExpenseAmountBin b WHERE b.userId = :userId AND b.expenseDate BETWEEN :startDate AND :endDate AND b.categoryId IN :categoryIds GROUP BY b.categoryId, b.binIndex")
+    List<Object[]> getMergedBinsForCategories(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("categoryIds") Collection<Long> categoryIds
+    );
+}
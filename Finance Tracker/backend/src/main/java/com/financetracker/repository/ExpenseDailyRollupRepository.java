@@ -0,0 +1,111 @@
+package com.financetracker.repository;
+
+import com.financetracker.entity.ExpenseDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExpenseDailyRollupRepository extends JpaRepository<ExpenseDailyRollup, Long> {
+    // Atomic increment (or decrement with negative values) of one bucket
+    @Modifying
+    @Query(value = "INSERT INTO expense_daily_rollup (user_id, expense_date, category_id, total_amount, transaction_count) " +
+            "VALUES (:userId, :expenseDate, :categoryId, :amount, :count) " +
+            "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+            "transaction_count = transaction_count + VALUES(transaction_count)", nativeQuery = true)
+    void applyDelta(
+        @Param("userId") Long userId,
+        @Param("expenseDate") LocalDate expenseDate,
+        @Param("categoryId") Long categoryId,
+        @Param("amount") BigDecimal amount,
+        @Param("count") long count
+    );
+    
+    @Modifying
+    @Query(value = "DELETE FROM expense_daily_rollup WHERE user_id = :userId AND expense_date = :expenseDate " +
+            "AND category_id = :categoryId AND transaction_count = 0", nativeQuery = true)
+    void deleteEmptyBucket(
+        @Param("userId") Long userId,
+        @Param("expenseDate") LocalDate expenseDate,
+        @Param("categoryId") Long categoryId
+    );
+    
+    @Modifying
+    @Query(value = "DELETE FROM expense_daily_rollup WHERE user_id = :userId", nativeQuery = true)
+    void deleteByUserId(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query(value = "INSERT INTO expense_daily_rollup (user_id, expense_date, category_id, total_amount, transaction_count) " +
+            "SELECT user_id, expense_date, category_id, SUM(amount), COUNT(*) FROM expenses " +
+            "WHERE user_id = :userId GROUP BY user_id, expense_date, category_id", nativeQuery = true)
+    void rebuildForUser(@Param("userId") Long userId);
+    
+    List<ExpenseDailyRollup> findByUserId(Long userId);
+    
+    // Analytics queries, same row shapes as the ExpenseRepository aggregates
+    @Query("SELECT SUM(r.totalAmount), SUM(r.transactionCount) FROM ExpenseDailyRollup r WHERE r.userId = :userId AND r.expenseDate BETWEEN :startDate AND :endDate")
+    List<Object[]> getTotals(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    @Query("SELECT r.categoryId, SUM(r.totalAmount), SUM(r.transactionCount) FROM ExpenseDailyRollup r WHERE r.userId = :userId AND r.expenseDate BETWEEN :startDate AND :endDate GROUP BY r.categoryId")
+    List<Object[]> getCategoryTotals(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    @Query("SELECT r.expenseDate, SUM(r.totalAmount) FROM ExpenseDailyRollup r WHERE r.userId = :userId AND r.expenseDate BETWEEN :startDate AND :endDate GROUP BY r.expenseDate ORDER BY r.expenseDate")
+    List<Object[]> getDailyTotals(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    @Query("SELECT YEAR(r.expenseDate), MONTH(r.expenseDate), SUM(r.totalAmount) FROM ExpenseDailyRollup r WHERE r.userId = :userId AND r.expenseDate BETWEEN :startDate AND :endDate GROUP BY YEAR(r.expenseDate), MONTH(r.expenseDate)")
+    List<Object[]> getMonthlyTotals(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    // Time-series queries, same row shapes as the ExpenseRepository ones
+    @Query("SELECT r.expenseDate, r.categoryId, SUM(r.totalAmount), SUM(r.transactionCount) FROM ExpenseDailyRollup r WHERE r.userId = :userId AND r.expenseDate BETWEEN :startDate AND :endDate GROUP BY r.expenseDate, r.categoryId")
+    List<Object[]> getDailySeries(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    @Query("SELECT r.expenseDate, r.categoryId, SUM(r.totalAmount), SUM(r.transactionCount) FROM ExpenseDailyRollup r WHERE r.userId = :userId AND r.expenseDate BETWEEN :startDate AND :endDate AND r.categoryId IN :categoryIds GROUP BY r.expenseDate, r.categoryId")
+    List<Object[]> getDailySeriesForCategories(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("categoryIds") Collection<Long> categoryIds
+    );
+    
+    @Query("SELECT YEAR(r.expenseDate), MONTH(r.expenseDate), r.categoryId, SUM(r.totalAmount), SUM(r.transactionCount) FROM ExpenseDailyRollup r WHERE r.userId = :userId AND r.expenseDate BETWEEN :startDate AND :endDate GROUP BY YEAR(r.expenseDate), MONTH(r.expenseDate), r.categoryId")
+    List<Object[]> getMonthlySeries(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    @Query("SELECT YEAR(r.expenseDate), MONTH(r.expenseDate), r.categoryId, SUM(r.totalAmount), SUM(r.transactionCount) FROM ExpenseDailyRollup r WHERE r.userId = :userId AND r.expenseDate BETWEEN :startDate AND :endDate AND r.categoryId IN :categoryIds GROUP BY YEAR(r.expenseDate), MONTH(r.expenseDate), r.categoryId")
+    List<Object[]> getMonthlySeriesForCategories(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("categoryIds") Collection<Long> categoryIds
+    );
+}
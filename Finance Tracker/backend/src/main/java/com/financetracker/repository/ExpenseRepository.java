@@ -1,26 +1,120 @@
 package com.financetracker.repository;
 
+import com.financetracker.dto.ExpenseDto;
 import com.financetracker.entity.Expense;
 import com.financetracker.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+    String SUMMARY_SELECT = "SELECT new com.financetracker.dto.ExpenseDto(e.id, e.category.id, e.amount, " +
+            "e.description, e.expenseDate, e.createdAt, e.anomalyScore, e.anomalyReasons) FROM Expense e ";
+    // Detail projection: each optional column is read only when its flag is set
+    String DETAIL_SELECT = "SELECT new com.financetracker.dto.ExpenseDto(e.id, e.category.id, e.amount, " +
+            "e.description, e.expenseDate, " +
+            "CASE WHEN :withPaymentMethod = true THEN e.paymentMethod ELSE NULL END, " +
+            "CASE WHEN :withLocation = true THEN e.location ELSE NULL END, " +
+            "CASE WHEN :withNotes = true THEN e.notes ELSE NULL END, " +
+            "e.createdAt, e.anomalyScore, e.anomalyReasons) FROM Expense e ";
+    
     // Optimized queries using indexes
     List<Expense> findByUserOrderByExpenseDateDesc(User user);
     
+    @Query("SELECT e.user.id FROM Expense e WHERE e.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+    
+    // Slim DTO projections: no payment_method, location or notes columns are read
+    @Query(SUMMARY_SELECT + "WHERE e.user = :user ORDER BY e.expenseDate DESC")
+    List<ExpenseDto> findSummariesByUser(@Param("user") User user);
+    
+    @Query(SUMMARY_SELECT + "WHERE e.user = :user AND e.expenseDate >= :startDate " +
+           "AND (e.expenseDate < :cursorDate OR (e.expenseDate = :cursorDate AND e.id < :cursorId)) " +
+           "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseDto> findSummaryPage(
+        @Param("user") User user,
+        @Param("startDate") LocalDate startDate,
+        @Param("cursorDate") LocalDate cursorDate,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
+    );
+    
+    @Query(SUMMARY_SELECT + "WHERE e.user = :user AND e.expenseDate >= :startDate AND e.category.id = :categoryId " +
+           "AND (e.expenseDate < :cursorDate OR (e.expenseDate = :cursorDate AND e.id < :cursorId)) " +
+           "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseDto> findSummaryPageByCategory(
+        @Param("user") User user,
+        @Param("startDate") LocalDate startDate,
+        @Param("categoryId") Long categoryId,
+        @Param("cursorDate") LocalDate cursorDate,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
+    );
+    
+    @Query(DETAIL_SELECT + "WHERE e.user = :user ORDER BY e.expenseDate DESC")
+    List<ExpenseDto> findDetailsByUser(
+        @Param("user") User user,
+        @Param("withPaymentMethod") boolean withPaymentMethod,
+        @Param("withLocation") boolean withLocation,
+        @Param("withNotes") boolean withNotes
+    );
+    
+    // Keyset pages ordered by (expense_date, id) descending, starting after the cursor position
+    @Query(DETAIL_SELECT + "WHERE e.user = :user AND e.expenseDate >= :startDate " +
+           "AND (e.expenseDate < :cursorDate OR (e.expenseDate = :cursorDate AND e.id < :cursorId)) " +
+           "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseDto> findDetailPage(
+        @Param("user") User user,
+        @Param("startDate") LocalDate startDate,
+        @Param("cursorDate") LocalDate cursorDate,
+        @Param("cursorId") Long cursorId,
+        @Param("withPaymentMethod") boolean withPaymentMethod,
+        @Param("withLocation") boolean withLocation,
+        @Param("withNotes") boolean withNotes,
+        Pageable pageable
+    );
+    
+    @Query(DETAIL_SELECT + "WHERE e.user = :user AND e.expenseDate >= :startDate AND e.category.id = :categoryId " +
+           "AND (e.expenseDate < :cursorDate OR (e.expenseDate = :cursorDate AND e.id < :cursorId)) " +
+           "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseDto> findDetailPageByCategory(
+        @Param("user") User user,
+        @Param("startDate") LocalDate startDate,
+        @Param("categoryId") Long categoryId,
+        @Param("cursorDate") LocalDate cursorDate,
+        @Param("cursorId") Long cursorId,
+        @Param("withPaymentMethod") boolean withPaymentMethod,
+        @Param("withLocation") boolean withLocation,
+        @Param("withNotes") boolean withNotes,
+        Pageable pageable
+    );
+    
     List<Expense> findByUserAndExpenseDateBetween(
         User user, 
         LocalDate startDate, 
         LocalDate endDate
     );
     
+    // Forward-only cursor for exports; rows are fetched from the server in batches
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Expense e WHERE e.user = :user ORDER BY e.expenseDate DESC, e.id DESC")
+    Stream<Expense> streamByUser(@Param("user") User user);
+    
     List<Expense> findByUserAndCategoryId(
         User user, 
         Long categoryId
@@ -46,5 +140,152 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
+    
+    // Aggregation queries used by the analytics query engine
+    @Query("SELECT SUM(e.amount), COUNT(e) FROM Expense e WHERE e.user = :user AND e.expenseDate BETWEEN :startDate AND :endDate")
+    List<Object[]> getExpenseTotals(
+        @Param("user") User user,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    @Query("SELECT e.category.id, SUM(e.amount), COUNT(e) FROM Expense e WHERE e.user = :user AND e.expenseDate BETWEEN :startDate AND :endDate GROUP BY e.category.id")
+    List<Object[]> getCategoryTotals(
+        @Param("user") User user,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    @Query("SELECT e.expenseDate, SUM(e.amount) FROM Expense e WHERE e.user = :user AND e.expenseDate BETWEEN :startDate AND :endDate GROUP BY e.expenseDate ORDER BY e.expenseDate")
+    List<Object[]> getDailyTotals(
+        @Param("user") User user,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    @Query("SELECT YEAR(e.expenseDate), MONTH(e.expenseDate), SUM(e.amount) FROM Expense e WHERE e.user = :user AND e.expenseDate BETWEEN :startDate AND :endDate GROUP BY YEAR(e.expenseDate), MONTH(e.expenseDate)")
+    List<Object[]> getMonthlyTotals(
+        @Param("user") User user,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    @Query("SELECT e.expenseDate, e.category.id, SUM(e.amount), COUNT(e) FROM Expense e WHERE e.user.id = :userId GROUP BY e.expenseDate, e.category.id")
+    List<Object[]> getDailyCategoryTotals(@Param("userId") Long userId);
+    
+    // Largest expenses first; with the limit the database keeps only the top rows while sorting
+    @Query(SUMMARY_SELECT + "WHERE e.user.id = :userId AND e.expenseDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY e.amount DESC, e.id DESC")
+    List<ExpenseDto> findLargestSummaries(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        Pageable pageable
+    );
+    
+    // Flagged expenses, newest first
+    @Query(SUMMARY_SELECT + "WHERE e.user.id = :userId AND e.anomalyReasons IS NOT NULL " +
+           "AND e.expenseDate BETWEEN :startDate AND :endDate ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseDto> findAnomalySummaries(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        Pageable pageable
+    );
+    
+    // Per category: count, mean and mean square of the log amounts, for the anomaly detector
+    @Query(value = "SELECT category_id, COUNT(*), AVG(LN(amount)), AVG(LN(amount) * LN(amount)) FROM expenses " +
+           "WHERE user_id = :userId GROUP BY category_id", nativeQuery = true)
+    List<Object[]> getLogAmountStats(@Param("userId") Long userId);
+    
+    @Query("SELECT e.location, SUM(e.amount), COUNT(e) FROM Expense e WHERE e.user.id = :userId " +
+           "AND e.expenseDate BETWEEN :startDate AND :endDate AND e.location IS NOT NULL AND e.location <> '' " +
+           "GROUP BY e.location ORDER BY SUM(e.amount) DESC")
+    List<Object[]> getTopLocations(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        Pageable pageable
+    );
+    
+    // (date, category id, amount) of every expense of a user, for rebuilding amount histograms
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.expenseDate, e.category.id, e.amount FROM Expense e WHERE e.user.id = :userId")
+    Stream<Object[]> streamAmountsByUserId(@Param("userId") Long userId);
+    
+    // (category id, description, location) of every expense of a user, for training the categorizer
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.category.id, e.description, e.location FROM Expense e WHERE e.user.id = :userId")
+    Stream<Object[]> streamCategorizationRowsByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT e.category.id, e.description, e.location FROM Expense e WHERE e.user.id = :userId AND e.id IN :ids")
+    List<Object[]> findCategorizationRowsByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+    
+    // Highest expense id per user, to find users with expenses the recurring detector has not seen
+    @Query("SELECT e.user.id, MAX(e.id) FROM Expense e GROUP BY e.user.id")
+    List<Object[]> getLatestIdPerUser();
+    
+    // (id, date, amount, description, category id, created at) of a user's expenses after an id, in id order
+    @Query("SELECT e.id, e.expenseDate, e.amount, e.description, e.category.id, e.createdAt FROM Expense e " +
+           "WHERE e.user.id = :userId AND e.id > :afterId ORDER BY e.id")
+    List<Object[]> findRecurrenceRowsAfter(
+        @Param("userId") Long userId,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+    
+    // Search index documents: (id, user id, category id, amount, date, description, location, notes)
+    String SEARCH_SELECT = "SELECT e.id, e.user.id, e.category.id, e.amount, e.expenseDate, " +
+            "e.description, e.location, e.notes FROM Expense e ";
+    
+    @Query(SEARCH_SELECT + "WHERE e.id IN :ids")
+    List<Object[]> findSearchRowsByIds(@Param("ids") Collection<Long> ids);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SEARCH_SELECT)
+    Stream<Object[]> streamSearchRows();
+    
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId AND e.id IN :ids")
+    List<Expense> findByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+    
+    // Time-series queries: (date | year, month), category id, sum, count
+    @Query("SELECT e.expenseDate, e.category.id, SUM(e.amount), COUNT(e) FROM Expense e WHERE e.user.id = :userId AND e.expenseDate BETWEEN :startDate AND :endDate GROUP BY e.expenseDate, e.category.id")
+    List<Object[]> getDailySeries(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    @Query("SELECT e.expenseDate, e.category.id, SUM(e.amount), COUNT(e) FROM Expense e WHERE e.user.id = :userId AND e.expenseDate BETWEEN :startDate AND :endDate AND e.category.id IN :categoryIds GROUP BY e.expenseDate, e.category.id")
+    List<Object[]> getDailySeriesForCategories(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("categoryIds") Collection<Long> categoryIds
+    );
+    
+    @Query("SELECT YEAR(e.expenseDate), MONTH(e.expenseDate), e.category.id, SUM(e.amount), COUNT(e) FROM Expense e WHERE e.user.id = :userId AND e.expenseDate BETWEEN :startDate AND :endDate GROUP BY YEAR(e.expenseDate), MONTH(e.expenseDate), e.category.id")
+    List<Object[]> getMonthlySeries(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    @Query("SELECT YEAR(e.expenseDate), MONTH(e.expenseDate), e.category.id, SUM(e.amount), COUNT(e) FROM Expense e WHERE e.user.id = :userId AND e.expenseDate BETWEEN :startDate AND :endDate AND e.category.id IN :categoryIds GROUP BY YEAR(e.expenseDate), MONTH(e.expenseDate), e.category.id")
+    List<Object[]> getMonthlySeriesForCategories(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("categoryIds") Collection<Long> categoryIds
+    );
 }
 
@@ -0,0 +1,19 @@
+package com.financetracker.repository;
+
+import com.financetracker.entity.ForecastModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ForecastModelRepository extends JpaRepository<ForecastModel, Long> {
+    List<ForecastModel> findByUserId(Long userId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM forecast_models WHERE user_id = :userId", nativeQuery = true)
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,15 @@
+package com.financetracker.repository;
+
+import com.financetracker.entity.RecurringMerchant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecurringMerchantRepository extends JpaRepository<RecurringMerchant, Long> {
+    List<RecurringMerchant> findByUserIdAndMerchantKeyIn(Long userId, Collection<String> merchantKeys);
+    
+    List<RecurringMerchant> findByUserIdAndRecurringTrue(Long userId);
+}
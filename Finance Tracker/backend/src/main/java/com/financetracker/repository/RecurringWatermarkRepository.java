@@ -0,0 +1,9 @@
+package com.financetracker.repository;
+
+import com.financetracker.entity.RecurringWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RecurringWatermarkRepository extends JpaRepository<RecurringWatermark, Long> {
+}
@@ -0,0 +1,42 @@
+package com.financetracker.security;
+
+import com.financetracker.entity.User;
+import com.financetracker.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves the authenticated user from the security context. The id comes
+ * from the {@link UserPrincipal} set by the JWT filter, so no users query is
+ * needed on the common path.
+ */
+@Service
+public class CurrentUserService {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private UserCache userCache;
+    
+    public Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new RuntimeException("User not found");
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return userCache.get(authentication.getName()).id();
+    }
+    
+    /**
+     * Returns a lazy reference to the current user; only the id is loaded
+     * unless other fields are accessed.
+     */
+    public User getCurrentUser() {
+        return userRepository.getReferenceById(getCurrentUserId());
+    }
+}
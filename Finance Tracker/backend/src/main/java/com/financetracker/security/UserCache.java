@@ -0,0 +1,92 @@
+package com.financetracker.security;
+
+import com.financetracker.entity.User;
+import com.financetracker.entity.listener.EntityChangedEvent;
+import com.financetracker.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-evicting cache of the user fields needed for authentication,
+ * keyed by username. Entries are evicted when the user row changes.
+ */
+@Component
+public class UserCache {
+    
+    /**
+     * Immutable snapshot of a user; principals are built from it per request
+     * because Spring Security erases credentials on the principal it returns.
+     */
+    public record CachedUser(Long id, String username, String password) {
+    }
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${user.cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${user.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+    
+    private Cache<String, CachedUser> cache;
+    
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+    
+    public CachedUser get(String username) {
+        CachedUser cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        // Loaded outside the cache's compute lock so the query never pins a virtual thread
+        CachedUser loaded = userRepository.findByUsername(username)
+                .map(user -> new CachedUser(user.getId(), user.getUsername(), user.getPassword()))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return cache.asMap().merge(username, loaded, (existing, fresh) -> existing);
+    }
+    
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.getEntity() instanceof User user && event.getType() != EntityChangedEvent.Type.PERSISTED) {
+            evict(user);
+        }
+    }
+    
+    /**
+     * Evict a changed user now and again after the surrounding transaction
+     * commits, so a concurrent load cannot re-cache the old row.
+     */
+    public void evict(User user) {
+        evictById(user.getId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Long id = user.getId();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictById(id);
+                }
+            });
+        }
+    }
+    
+    private void evictById(Long id) {
+        cache.asMap().values().removeIf(cached -> cached.id().equals(id));
+    }
+}
@@ -0,0 +1,27 @@
+package com.financetracker.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Authenticated principal that carries the database id of the user, so
+ * services can reference the user without looking it up again.
+ */
+public class UserPrincipal extends User {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final Long id;
+    
+    public UserPrincipal(Long id, String username, String password,
+                         Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+}
@@ -1,7 +1,5 @@
 package com.financetracker.security;
 
-import com.financetracker.entity.User;
-import com.financetracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,16 +12,16 @@ import java.util.ArrayList;
 public class UserService implements UserDetailsService {
     
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
     
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        UserCache.CachedUser user = userCache.get(username);
         
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
+        return new UserPrincipal(
+                user.id(),
+                user.username(),
+                user.password(),
                 new ArrayList<>()
         );
     }
@@ -0,0 +1,94 @@
+package com.financetracker.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable quantile sketch over expense amounts with logarithmic buckets
+ * (the DDSketch mapping): bucket {@code i} holds amounts in
+ * {@code (gamma^(i-1), gamma^i]}, so any quantile is estimated within
+ * {@link #RELATIVE_ACCURACY} of the true amount. Sketches merge by adding
+ * bucket counts, and an amount is removed by decrementing its bucket, which
+ * lets expense updates and deletes keep the stored per-day buckets exact.
+ */
+public class AmountSketch {
+    
+    public static final double RELATIVE_ACCURACY = 0.01;
+    
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    
+    // Amounts are at least one cent; anything smaller shares the lowest bucket
+    private static final double MIN_AMOUNT = 0.01;
+    
+    private final TreeMap<Integer, Long> bins = new TreeMap<>();
+    private long count;
+    
+    public static int binOf(BigDecimal amount) {
+        return (int) Math.ceil(Math.log(Math.max(amount.doubleValue(), MIN_AMOUNT)) / LOG_GAMMA);
+    }
+    
+    /**
+     * Representative amount of a bucket: the point with the same relative
+     * distance to both bucket boundaries.
+     */
+    public static BigDecimal valueOf(int bin) {
+        return BigDecimal.valueOf(2 * Math.pow(GAMMA, bin) / (GAMMA + 1)).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    public void add(int bin, long binCount) {
+        if (binCount <= 0) {
+            return;
+        }
+        bins.merge(bin, binCount, Long::sum);
+        count += binCount;
+    }
+    
+    /**
+     * Takes back amounts added earlier; the mirror of the per-day bucket
+     * decrement an expense update or delete applies.
+     */
+    public void remove(int bin, long binCount) {
+        Long current = bins.get(bin);
+        if (current == null || binCount <= 0) {
+            return;
+        }
+        long removed = Math.min(current, binCount);
+        if (removed == current) {
+            bins.remove(bin);
+        } else {
+            bins.put(bin, current - removed);
+        }
+        count -= removed;
+    }
+    
+    public void merge(AmountSketch other) {
+        for (Map.Entry<Integer, Long> bin : other.bins.entrySet()) {
+            add(bin.getKey(), bin.getValue());
+        }
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Estimated amount at quantile {@code q} (0 to 1), or null when empty.
+     */
+    public BigDecimal quantile(double q) {
+        if (count == 0) {
+            return null;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> bin : bins.entrySet()) {
+            seen += bin.getValue();
+            if (seen > rank) {
+                return valueOf(bin.getKey());
+            }
+        }
+        return valueOf(bins.lastKey());
+    }
+}
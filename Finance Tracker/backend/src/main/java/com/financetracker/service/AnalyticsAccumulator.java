@@ -0,0 +1,150 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.AnalyticsDto;
+import com.financetracker.dto.CategoryExpenseDto;
+import com.financetracker.dto.DailyExpenseDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass analytics accumulator. Amounts are kept as long cents in
+ * primitive arrays indexed by day offset from the start date and by a dense
+ * per-category index; BigDecimal values are only created when the DTO is
+ * built. Callers bound the range, since the day arrays are sized from it.
+ */
+public class AnalyticsAccumulator {
+    
+    private final LocalDate startDate;
+    private final long startEpochDay;
+    
+    private final long[] dailyCents;
+    private final boolean[] dailySeen;
+    
+    // Category ids in first-seen order; the position is the index into the amount arrays
+    private final Map<Long, Integer> categoryIndexes = new HashMap<>();
+    private long[] categoryIds = new long[16];
+    private long[] categoryCents = new long[16];
+    private long[] categoryCounts = new long[16];
+    
+    private long totalCents;
+    private long totalCount;
+    
+    public AnalyticsAccumulator(LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.startEpochDay = startDate.toEpochDay();
+        int days = Math.max(0, Math.toIntExact(ChronoUnit.DAYS.between(startDate, endDate) + 1));
+        this.dailyCents = new long[days];
+        this.dailySeen = new boolean[days];
+    }
+    
+    /**
+     * Builds a category row from its id, total and transaction count.
+     */
+    @FunctionalInterface
+    public interface CategoryRowFactory {
+        CategoryExpenseDto create(Long categoryId, BigDecimal totalAmount, long count);
+    }
+    
+    public void add(LocalDate date, Long categoryId, BigDecimal amount) {
+        int day = (int) (date.toEpochDay() - startEpochDay);
+        if (day < 0 || day >= dailyCents.length) {
+            return;
+        }
+        long cents = toCents(amount);
+        
+        totalCents += cents;
+        totalCount++;
+        dailyCents[day] += cents;
+        dailySeen[day] = true;
+        
+        int categoryIndex = categoryIndex(categoryId);
+        categoryCents[categoryIndex] += cents;
+        categoryCounts[categoryIndex]++;
+    }
+    
+    private int categoryIndex(Long categoryId) {
+        Integer index = categoryIndexes.get(categoryId);
+        if (index != null) {
+            return index;
+        }
+        int next = categoryIndexes.size();
+        if (next == categoryIds.length) {
+            int size = next * 2;
+            categoryIds = Arrays.copyOf(categoryIds, size);
+            categoryCents = Arrays.copyOf(categoryCents, size);
+            categoryCounts = Arrays.copyOf(categoryCounts, size);
+        }
+        categoryIds[next] = categoryId;
+        categoryIndexes.put(categoryId, next);
+        return next;
+    }
+    
+    public long getTotalCount() {
+        return totalCount;
+    }
+    
+    public AnalyticsDto toDto(CategoryRowFactory categoryRows) {
+        BigDecimal totalExpenses = BigDecimal.valueOf(totalCents, 2);
+        BigDecimal averageDailyExpense = totalExpenses.divide(
+                BigDecimal.valueOf(dailyCents.length), 2, RoundingMode.HALF_UP);
+        
+        List<CategoryExpenseDto> categoryExpenses = new ArrayList<>();
+        for (int i = 0; i < categoryIndexes.size(); i++) {
+            categoryExpenses.add(categoryRows.create(categoryIds[i], BigDecimal.valueOf(categoryCents[i], 2), categoryCounts[i]));
+        }
+        categoryExpenses.sort(Comparator.comparing(CategoryExpenseDto::getTotalAmount).reversed()
+                .thenComparing(CategoryExpenseDto::getCategoryId));
+        
+        // Daily and monthly series in one walk over the day array
+        List<DailyExpenseDto> dailyExpenses = new ArrayList<>();
+        Map<String, BigDecimal> monthlyExpenses = new HashMap<>();
+        YearMonth month = YearMonth.from(startDate);
+        long monthCents = 0;
+        boolean monthSeen = false;
+        for (int i = 0; i < dailyCents.length; i++) {
+            LocalDate date = startDate.plusDays(i);
+            if (i > 0 && date.getDayOfMonth() == 1) {
+                if (monthSeen) {
+                    monthlyExpenses.put(month.toString(), BigDecimal.valueOf(monthCents, 2));
+                }
+                month = YearMonth.from(date);
+                monthCents = 0;
+                monthSeen = false;
+            }
+            if (dailySeen[i]) {
+                dailyExpenses.add(new DailyExpenseDto(date.toString(), BigDecimal.valueOf(dailyCents[i], 2)));
+                monthCents += dailyCents[i];
+                monthSeen = true;
+            }
+        }
+        if (monthSeen) {
+            monthlyExpenses.put(month.toString(), BigDecimal.valueOf(monthCents, 2));
+        }
+        
+        return new AnalyticsDto(
+                totalExpenses,
+                averageDailyExpense,
+                totalCount,
+                categoryExpenses,
+                dailyExpenses,
+                monthlyExpenses
+        );
+    }
+    
+    static long toCents(BigDecimal amount) {
+        if (amount.scale() == 2) {
+            return amount.unscaledValue().longValueExact();
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
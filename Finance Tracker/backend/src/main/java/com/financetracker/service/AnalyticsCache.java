@@ -0,0 +1,127 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.AnalyticsDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Analytics results keyed by (user, start date, end date, sections). An expense write
+ * evicts only the entries of that user whose range contains one of the
+ * touched days, once when the write happens and again after it commits.
+ * Keys are indexed per user, so a write scans only its own user's entries.
+ * A per-user generation keeps a result computed before a write from being
+ * cached after it.
+ */
+@Component
+public class AnalyticsCache {
+    
+    private record Key(Long userId, LocalDate startDate, LocalDate endDate, Set<AnalyticsSection> sections) {
+        boolean coversAny(NavigableSet<LocalDate> dates) {
+            LocalDate first = dates.ceiling(startDate);
+            return first != null && !first.isAfter(endDate);
+        }
+    }
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${analytics.cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${analytics.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+    
+    private Cache<Key, AnalyticsDto> cache;
+    private Counter invalidations;
+    private final CacheGenerations<Long> generations = new CacheGenerations<>();
+    // Cached keys per user; may briefly hold keys already evicted, never miss a cached one
+    private final Map<Long, Set<Key>> userKeys = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .evictionListener((Key key, AnalyticsDto value, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "analytics");
+        invalidations = Counter.builder("analytics.cache.invalidations")
+                .description("Analytics results evicted by expense writes")
+                .register(meterRegistry);
+    }
+    
+    public AnalyticsDto get(Long userId, LocalDate startDate, LocalDate endDate, Set<AnalyticsSection> sections,
+                            Supplier<AnalyticsDto> loader) {
+        Key key = new Key(userId, startDate, endDate, sections);
+        AnalyticsDto cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        return generations.load(userId, loader, computed -> {
+            // Indexed after the put: an eviction of the old entry has already run its listener
+            cache.put(key, computed);
+            userKeys.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(key);
+            return computed;
+        }, computed -> cache.invalidate(key));
+    }
+    
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        invalidate(event);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void afterExpenseCommitted(ExpenseChangedEvent event) {
+        invalidate(event);
+    }
+    
+    private void invalidate(ExpenseChangedEvent event) {
+        Long userId = event.getUserId();
+        generations.bump(userId);
+        Set<Key> keys = userKeys.get(userId);
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        NavigableSet<LocalDate> dates = event.getCategoryDays().stream()
+                .map(ExpenseChangedEvent.CategoryDay::getDate)
+                .collect(Collectors.toCollection(TreeSet::new));
+        keys.removeIf(key -> {
+            if (!key.coversAny(dates)) {
+                return false;
+            }
+            if (cache.asMap().remove(key) != null) {
+                invalidations.increment();
+            }
+            return true;
+        });
+    }
+    
+    private void unindex(Key key) {
+        Set<Key> keys = userKeys.get(key.userId());
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.financetracker.service;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Independently computed parts of {@code AnalyticsDto}, selected with the
+ * {@code sections} request parameter.
+ */
+public enum AnalyticsSection {
+    TOTAL,
+    CATEGORY,
+    DAILY,
+    MONTHLY;
+    
+    public static final Set<AnalyticsSection> ALL = Collections.unmodifiableSet(EnumSet.allOf(AnalyticsSection.class));
+    
+    /**
+     * Parses a comma separated list such as {@code total,category}; an empty
+     * or missing list selects every section.
+     */
+    public static Set<AnalyticsSection> parse(String sections) {
+        if (sections == null || sections.isBlank()) {
+            return ALL;
+        }
+        Set<AnalyticsSection> parsed = EnumSet.noneOf(AnalyticsSection.class);
+        for (String section : sections.split(",")) {
+            if (section.isBlank()) {
+                continue;
+            }
+            try {
+                parsed.add(valueOf(section.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unknown analytics section: " + section.trim());
+            }
+        }
+        return parsed.isEmpty() ? ALL : Collections.unmodifiableSet(parsed);
+    }
+    
+    /**
+     * Stable name of a selection, in declaration order, for cache keys and ETags.
+     */
+    public static String key(Set<AnalyticsSection> sections) {
+        return EnumSet.copyOf(sections).stream()
+                .map(section -> section.name().toLowerCase())
+                .collect(Collectors.joining("."));
+    }
+}
@@ -0,0 +1,103 @@
+package com.financetracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool that runs the sections of one analytics request side by side.
+ * The pool size caps how many connections analytics can hold at once; when
+ * its queue is full the requesting thread runs the section itself. Every
+ * request shares one deadline, after which its unfinished sections are
+ * cancelled and the request fails.
+ */
+@Component
+public class AnalyticsSectionExecutor {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${analytics.sections.pool-size:8}")
+    private int poolSize;
+    
+    @Value("${analytics.sections.queue-capacity:200}")
+    private int queueCapacity;
+    
+    @Value("${analytics.sections.timeout-ms:10000}")
+    private long timeoutMs;
+    
+    private ThreadPoolExecutor executor;
+    
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "analytics-section-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        new ExecutorServiceMetrics(executor, "analytics.sections", Tags.empty()).bindTo(meterRegistry);
+    }
+    
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+    
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+    
+    /**
+     * Runs every task and returns the results under the same keys, failing
+     * with the first task error or when the deadline passes.
+     */
+    public <K> Map<K, Object> invokeAll(Map<K, Callable<?>> tasks) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Map<K, Future<?>> futures = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<K, Callable<?>> task : tasks.entrySet()) {
+                futures.put(task.getKey(), executor.submit(task.getValue()));
+            }
+            Map<K, Object> results = new LinkedHashMap<>();
+            for (Map.Entry<K, Future<?>> future : futures.entrySet()) {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                results.put(future.getKey(), future.getValue().get(remaining, TimeUnit.NANOSECONDS));
+            }
+            return results;
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Analytics request timed out after " + timeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Analytics request interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Analytics section failed", e.getCause());
+        } finally {
+            futures.values().forEach(future -> future.cancel(true));
+        }
+    }
+}
@@ -1,22 +1,31 @@
 package com.financetracker.service;
 
 import com.financetracker.dto.AnalyticsDto;
+import com.financetracker.dto.CategoryDto;
 import com.financetracker.dto.CategoryExpenseDto;
 import com.financetracker.dto.DailyExpenseDto;
 import com.financetracker.entity.Expense;
-import com.financetracker.entity.ExpenseCategory;
 import com.financetracker.entity.User;
+import com.financetracker.repository.ExpenseDailyRollupRepository;
 import com.financetracker.repository.ExpenseRepository;
-import com.financetracker.repository.UserRepository;
+import com.financetracker.security.CurrentUserService;
+import com.financetracker.util.AmountUtil;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,100 +35,258 @@ public class AnalyticsService {
     private ExpenseRepository expenseRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private ExpenseDailyRollupRepository rollupRepository;
     
-    private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+    
+    @Autowired
+    private AnalyticsCache analyticsCache;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private AnalyticsSectionExecutor sectionExecutor;
+    
+    /**
+     * Analytics engine: "query" aggregates the expenses table in the database,
+     * "rollup" reads the pre-aggregated expense_daily_rollup table and
+     * "entity" loads every expense in the range and aggregates in memory.
+     */
+    @Value("${analytics.engine:query}")
+    private String analyticsEngine;
+    
+    @Value("${analytics.max-days:3660}")
+    private int maxDays;
+    
+    private TransactionTemplate readOnlyTransaction;
+    
+    // Read-only, with the section deadline as the statement timeout
+    private TransactionTemplate sectionTransaction;
+    
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        sectionTransaction = new TransactionTemplate(transactionManager);
+        sectionTransaction.setReadOnly(true);
+        sectionTransaction.setTimeout((int) Math.max(1, (sectionExecutor.getTimeoutMs() + 999) / 1000));
     }
     
+    /**
+     * Cached analytics of the current user; a cache hit needs no
+     * transaction or connection.
+     */
     public AnalyticsDto getAnalytics(LocalDate startDate, LocalDate endDate) {
-        User user = getCurrentUser();
-        
-        // Use optimized query with indexes
-        List<Expense> expenses = expenseRepository
-                .findByUserAndExpenseDateBetween(user, startDate, endDate);
-        
-        if (expenses.isEmpty()) {
-            return new AnalyticsDto(
-                    BigDecimal.ZERO,
-                    BigDecimal.ZERO,
-                    0L,
-                    new ArrayList<>(),
-                    new ArrayList<>(),
-                    new HashMap<>()
-            );
+        return getAnalytics(startDate, endDate, AnalyticsSection.ALL);
+    }
+    
+    /**
+     * Cached analytics limited to the requested sections; fields of the
+     * other sections are left null.
+     */
+    public AnalyticsDto getAnalytics(LocalDate startDate, LocalDate endDate, Set<AnalyticsSection> sections) {
+        if (ChronoUnit.DAYS.between(startDate, endDate) + 1 > maxDays) {
+            throw new RuntimeException("Analytics range too long (max " + maxDays + " days)");
         }
+        Long userId = currentUserService.getCurrentUserId();
+        return analyticsCache.get(userId, startDate, endDate, sections,
+                () -> computeAnalytics(userId, startDate, endDate, sections));
+    }
+    
+    AnalyticsDto computeAnalytics(Long userId, LocalDate startDate, LocalDate endDate,
+                                  Set<AnalyticsSection> sections) {
+        User user = currentUserService.getCurrentUser();
         
-        // Calculate total expenses
-        BigDecimal totalExpenses = expenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if ("entity".equalsIgnoreCase(analyticsEngine)) {
+            AnalyticsDto analytics = readOnlyTransaction.execute(
+                    status -> computeFromEntities(user, startDate, endDate));
+            return retainSections(analytics, sections);
+        }
+        return computeFromAggregates(user, startDate, endDate, sections);
+    }
+    
+    /**
+     * Computes analytics with grouped queries so that only aggregate rows,
+     * never individual expenses, are read from the database. Each requested
+     * section is a separate query in its own read-only transaction, and
+     * several sections run in parallel on the section executor.
+     * <p>
+     * Separate transactions do not share a snapshot: when an expense write
+     * commits while the sections run, some may include it and others not,
+     * so the total can briefly disagree with the category breakdown. One
+     * shared snapshot would need one connection and serial queries, which
+     * is what the parallel sections avoid. Such a result is returned but
+     * never stays cached: {@link AnalyticsCache} does not store it when the
+     * user's generation moved during the computation, and the write's
+     * after-commit eviction removes it if it was stored just before that.
+     * The next request therefore recomputes a consistent result.
+     */
+    @SuppressWarnings("unchecked")
+    private AnalyticsDto computeFromAggregates(User user, LocalDate startDate, LocalDate endDate,
+                                              Set<AnalyticsSection> sections) {
+        boolean useRollups = "rollup".equalsIgnoreCase(analyticsEngine);
         
-        // Calculate average daily expense
-        long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate) + 1;
-        BigDecimal averageDailyExpense = totalExpenses.divide(
-                BigDecimal.valueOf(daysBetween), 2, RoundingMode.HALF_UP);
+        Map<AnalyticsSection, Callable<?>> tasks = new EnumMap<>(AnalyticsSection.class);
+        if (sections.contains(AnalyticsSection.TOTAL)) {
+            tasks.put(AnalyticsSection.TOTAL, inSectionTransaction(() -> (useRollups
+                    ? rollupRepository.getTotals(user.getId(), startDate, endDate)
+                    : expenseRepository.getExpenseTotals(user, startDate, endDate)).get(0)));
+        }
+        if (sections.contains(AnalyticsSection.CATEGORY)) {
+            tasks.put(AnalyticsSection.CATEGORY, inSectionTransaction(() -> toCategoryExpenses(useRollups
+                    ? rollupRepository.getCategoryTotals(user.getId(), startDate, endDate)
+                    : expenseRepository.getCategoryTotals(user, startDate, endDate))));
+        }
+        if (sections.contains(AnalyticsSection.DAILY)) {
+            tasks.put(AnalyticsSection.DAILY, inSectionTransaction(() -> toDailyExpenses(useRollups
+                    ? rollupRepository.getDailyTotals(user.getId(), startDate, endDate)
+                    : expenseRepository.getDailyTotals(user, startDate, endDate))));
+        }
+        if (sections.contains(AnalyticsSection.MONTHLY)) {
+            tasks.put(AnalyticsSection.MONTHLY, inSectionTransaction(() -> toMonthlyExpenses(useRollups
+                    ? rollupRepository.getMonthlyTotals(user.getId(), startDate, endDate)
+                    : expenseRepository.getMonthlyTotals(user, startDate, endDate))));
+        }
         
-        // Expenses by category
-        Map<Long, List<Expense>> expensesByCategory = expenses.stream()
-                .collect(Collectors.groupingBy(e -> e.getCategory().getId()));
+        Map<AnalyticsSection, Object> results = runSections(tasks);
         
-        List<CategoryExpenseDto> categoryExpenses = expensesByCategory.entrySet().stream()
-                .map(entry -> {
-                    List<Expense> categoryExpenseList = entry.getValue();
-                    BigDecimal categoryTotal = categoryExpenseList.stream()
-                            .map(Expense::getAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    
-                    ExpenseCategory category = categoryExpenseList.get(0).getCategory();
-                    return new CategoryExpenseDto(
-                            category.getId(),
-                            category.getName(),
-                            category.getIcon(),
-                            categoryTotal,
-                            (long) categoryExpenseList.size()
-                    );
-                })
+        AnalyticsDto analytics = new AnalyticsDto(null, null, null, null, null, null);
+        if (results.containsKey(AnalyticsSection.TOTAL)) {
+            Object[] totals = (Object[]) results.get(AnalyticsSection.TOTAL);
+            long totalTransactions = totals[1] == null ? 0 : ((Number) totals[1]).longValue();
+            BigDecimal totalExpenses = totalTransactions == 0 ? BigDecimal.ZERO : AmountUtil.toBigDecimal(totals[0]);
+            analytics.setTotalExpenses(totalExpenses);
+            analytics.setAverageDailyExpense(totalTransactions == 0
+                    ? BigDecimal.ZERO
+                    : averageDailyExpense(totalExpenses, startDate, endDate));
+            analytics.setTotalTransactions(totalTransactions);
+        }
+        analytics.setExpensesByCategory((List<CategoryExpenseDto>) results.get(AnalyticsSection.CATEGORY));
+        analytics.setDailyExpenses((List<DailyExpenseDto>) results.get(AnalyticsSection.DAILY));
+        analytics.setMonthlyExpenses((Map<String, BigDecimal>) results.get(AnalyticsSection.MONTHLY));
+        return analytics;
+    }
+    
+    /**
+     * A single section runs on the calling thread; there is nothing to overlap.
+     */
+    private Map<AnalyticsSection, Object> runSections(Map<AnalyticsSection, Callable<?>> tasks) {
+        if (tasks.size() > 1) {
+            return sectionExecutor.invokeAll(tasks);
+        }
+        Map<AnalyticsSection, Object> results = new EnumMap<>(AnalyticsSection.class);
+        for (Map.Entry<AnalyticsSection, Callable<?>> task : tasks.entrySet()) {
+            try {
+                results.put(task.getKey(), task.getValue().call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException("Analytics section failed", e);
+            }
+        }
+        return results;
+    }
+    
+    private <T> Callable<T> inSectionTransaction(Supplier<T> query) {
+        return () -> sectionTransaction.execute(status -> query.get());
+    }
+    
+    private List<CategoryExpenseDto> toCategoryExpenses(List<Object[]> categoryRows) {
+        return categoryRows.stream()
+                .map(row -> toCategoryExpense(
+                        ((Number) row[0]).longValue(),
+                        AmountUtil.toBigDecimal(row[1]),
+                        ((Number) row[2]).longValue()
+                ))
                 .sorted((a, b) -> b.getTotalAmount().compareTo(a.getTotalAmount()))
                 .collect(Collectors.toList());
-        
-        // Daily expenses
-        Map<String, BigDecimal> dailyExpensesMap = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        e -> e.getExpenseDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                Expense::getAmount,
-                                BigDecimal::add
-                        )
-                ));
-        
-        List<DailyExpenseDto> dailyExpenses = dailyExpensesMap.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .map(entry -> new DailyExpenseDto(entry.getKey(), entry.getValue()))
+    }
+    
+    private List<DailyExpenseDto> toDailyExpenses(List<Object[]> dailyRows) {
+        return dailyRows.stream()
+                .map(row -> new DailyExpenseDto(
+                        ((LocalDate) row[0]).format(DateTimeFormatter.ISO_LOCAL_DATE),
+                        AmountUtil.toBigDecimal(row[1])
+                ))
                 .collect(Collectors.toList());
+    }
+    
+    private Map<String, BigDecimal> toMonthlyExpenses(List<Object[]> monthlyRows) {
+        Map<String, BigDecimal> monthlyExpenses = new HashMap<>();
+        for (Object[] row : monthlyRows) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            monthlyExpenses.put(month.toString(), AmountUtil.toBigDecimal(row[2]));
+        }
+        return monthlyExpenses;
+    }
+    
+    private AnalyticsDto retainSections(AnalyticsDto analytics, Set<AnalyticsSection> sections) {
+        if (!sections.contains(AnalyticsSection.TOTAL)) {
+            analytics.setTotalExpenses(null);
+            analytics.setAverageDailyExpense(null);
+            analytics.setTotalTransactions(null);
+        }
+        if (!sections.contains(AnalyticsSection.CATEGORY)) {
+            analytics.setExpensesByCategory(null);
+        }
+        if (!sections.contains(AnalyticsSection.DAILY)) {
+            analytics.setDailyExpenses(null);
+        }
+        if (!sections.contains(AnalyticsSection.MONTHLY)) {
+            analytics.setMonthlyExpenses(null);
+        }
+        return analytics;
+    }
+    
+    /**
+     * Fallback engine that hydrates every expense in the range and
+     * aggregates it in a single pass.
+     */
+    private AnalyticsDto computeFromEntities(User user, LocalDate startDate, LocalDate endDate) {
+        // Use optimized query with indexes
+        List<Expense> expenses = expenseRepository
+                .findByUserAndExpenseDateBetween(user, startDate, endDate);
         
-        // Monthly expenses
-        Map<String, BigDecimal> monthlyExpenses = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        e -> e.getExpenseDate().format(DateTimeFormatter.ofPattern("yyyy-MM")),
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                Expense::getAmount,
-                                BigDecimal::add
-                        )
-                ));
+        if (expenses.isEmpty()) {
+            return emptyAnalytics();
+        }
         
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator(startDate, endDate);
+        for (Expense expense : expenses) {
+            accumulator.add(expense.getExpenseDate(), expense.getCategory().getId(), expense.getAmount());
+        }
+        return accumulator.toDto(this::toCategoryExpense);
+    }
+    
+    private CategoryExpenseDto toCategoryExpense(Long categoryId, BigDecimal totalAmount, long count) {
+        CategoryDto category = categoryRegistry.get(categoryId);
+        return new CategoryExpenseDto(
+                categoryId,
+                category != null ? category.getName() : null,
+                category != null ? category.getIcon() : null,
+                totalAmount,
+                count
+        );
+    }
+    
+    private AnalyticsDto emptyAnalytics() {
         return new AnalyticsDto(
-                totalExpenses,
-                averageDailyExpense,
-                (long) expenses.size(),
-                categoryExpenses,
-                dailyExpenses,
-                monthlyExpenses
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                0L,
+                new ArrayList<>(),
+                new ArrayList<>(),
+                new HashMap<>()
         );
     }
+    
+    private BigDecimal averageDailyExpense(BigDecimal totalExpenses, LocalDate startDate, LocalDate endDate) {
+        long daysBetween = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        return totalExpenses.divide(BigDecimal.valueOf(daysBetween), 2, RoundingMode.HALF_UP);
+    }
 }
-
@@ -0,0 +1,374 @@
+package com.financetracker.service;
+
+import com.financetracker.repository.ExpenseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Flags expenses that are unusual for their user and category. Per
+ * category it keeps Welford mean and variance of the log amounts and an
+ * exponentially weighted daily spend rate, in memory. An expense is an
+ * AMOUNT anomaly when its log amount is more than
+ * {@code anomaly.amount-z-threshold} standard deviations above the mean,
+ * and a SPIKE when it takes its day's spend above
+ * {@code anomaly.spike-factor} times the recent daily rate.
+ * <p>
+ * Assessing and recording an expense are constant-time and read nothing.
+ * A user's statistics are loaded with two grouped queries on a background
+ * thread the first time they are needed; until they are in memory, the
+ * user's expenses are saved unscored. Records are applied after commit;
+ * records that commit while a load's snapshot is being read are buffered
+ * and applied to the loaded statistics before they are published.
+ */
+@Component
+public class AnomalyDetector {
+    
+    private static final Logger log = LoggerFactory.getLogger(AnomalyDetector.class);
+    
+    public static final String AMOUNT = "AMOUNT";
+    public static final String SPIKE = "SPIKE";
+    
+    /**
+     * Outcome for one expense: the z-score of its log amount (null while the
+     * category has too few expenses) and the comma separated reasons, or
+     * null when it is not anomalous.
+     */
+    public record Assessment(Double score, String reasons) {
+    }
+    
+    /**
+     * One expense added to or removed from the statistics.
+     */
+    public record Sample(Long categoryId, LocalDate date, BigDecimal amount) {
+    }
+    
+    private static final class CategoryStats {
+        long count;
+        double mean;
+        double m2;
+        // Weighted daily spend through the day before currentDay, and the spend of currentDay so far
+        double dailyRate;
+        LocalDate currentDay;
+        double currentDayTotal;
+    }
+    
+    private record Write(List<Sample> added, List<Sample> removed) {
+    }
+    
+    /**
+     * Writes committed after a load took its snapshot, replayed onto its
+     * result. Exists only while the load runs.
+     */
+    private static final class LoadGuard {
+        final List<Write> pending = new ArrayList<>();
+    }
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${anomaly.amount-z-threshold:3.0}")
+    private double zThreshold;
+    
+    @Value("${anomaly.spike-factor:3.0}")
+    private double spikeFactor;
+    
+    @Value("${anomaly.min-samples:10}")
+    private long minSamples;
+    
+    @Value("${anomaly.rate-days:30}")
+    private int rateDays;
+    
+    @Value("${anomaly.cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${anomaly.cache.idle-seconds:3600}")
+    private long idleSeconds;
+    
+    @Value("${anomaly.loader.threads:2}")
+    private int loaderThreads;
+    
+    @Value("${anomaly.loader.queue-capacity:1000}")
+    private int loaderQueueCapacity;
+    
+    private Cache<Long, Map<Long, CategoryStats>> cache;
+    // Per-user entries only while a load is in flight; compute() on it orders writes against publication
+    private final Map<Long, LoadGuard> guards = new ConcurrentHashMap<>();
+    private final Set<Long> loading = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor loader;
+    private TransactionTemplate readTransaction;
+    private double rateWeight;
+    
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofSeconds(idleSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "anomaly");
+        rateWeight = 2.0 / (rateDays + 1);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        // Both load queries must read the snapshot the buffered writes are missing from
+        readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        
+        // Writers never wait for a load: a full queue drops the load and the next miss queues it again
+        AtomicInteger threadCount = new AtomicInteger();
+        loader = new ThreadPoolExecutor(
+                loaderThreads, loaderThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(loaderQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "anomaly-loader-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        loader.allowCoreThreadTimeOut(true);
+    }
+    
+    @PreDestroy
+    void stop() {
+        loader.shutdownNow();
+    }
+    
+    /**
+     * Score an expense against its category. Runs on the write path, so it
+     * never queries: when the user's statistics are not in memory it queues
+     * their load and returns an unscored assessment.
+     */
+    public Assessment assess(Long userId, Long categoryId, LocalDate date, BigDecimal amount) {
+        Map<Long, CategoryStats> categories = cache.getIfPresent(userId);
+        if (categories == null) {
+            loadAsync(userId);
+            return new Assessment(null, null);
+        }
+        synchronized (categories) {
+            CategoryStats stats = categories.get(categoryId);
+            if (stats == null || stats.count < minSamples) {
+                return new Assessment(null, null);
+            }
+            List<String> reasons = new ArrayList<>(2);
+            double value = amount.doubleValue();
+            double deviation = Math.sqrt(stats.m2 / (stats.count - 1));
+            double score = deviation > 0 ? (Math.log(value) - stats.mean) / deviation : 0;
+            if (score > zThreshold) {
+                reasons.add(AMOUNT);
+            }
+            // Only the newest day has a running total; back-dated expenses are judged on amount alone
+            if (stats.currentDay != null && !date.isBefore(stats.currentDay)) {
+                double before = date.equals(stats.currentDay) ? stats.currentDayTotal : 0;
+                double limit = spikeFactor * rateAt(stats, date);
+                if (limit > 0 && before <= limit && before + value > limit) {
+                    reasons.add(SPIKE);
+                }
+            }
+            return new Assessment(Math.round(score * 100) / 100.0, reasons.isEmpty() ? null : String.join(",", reasons));
+        }
+    }
+    
+    /**
+     * Fold added and removed expenses into the statistics once the
+     * surrounding transaction commits (immediately without one).
+     */
+    public void record(Long userId, List<Sample> added, List<Sample> removed) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, added, removed);
+                }
+            });
+        } else {
+            apply(userId, added, removed);
+        }
+    }
+    
+    private void apply(Long userId, List<Sample> added, List<Sample> removed) {
+        // Atomic with a load's publication: the write is either buffered for the load or applied to its result
+        guards.compute(userId, (id, guard) -> {
+            if (guard != null) {
+                guard.pending.add(new Write(added, removed));
+                return guard;
+            }
+            Map<Long, CategoryStats> categories = cache.getIfPresent(userId);
+            if (categories != null) {
+                applyTo(categories, added, removed);
+            }
+            return null;
+        });
+    }
+    
+    private void applyTo(Map<Long, CategoryStats> categories, List<Sample> added, List<Sample> removed) {
+        synchronized (categories) {
+            for (Sample sample : removed) {
+                CategoryStats stats = categories.get(sample.categoryId());
+                if (stats != null) {
+                    remove(stats, sample);
+                }
+            }
+            for (Sample sample : added) {
+                add(categories.computeIfAbsent(sample.categoryId(), id -> new CategoryStats()), sample);
+            }
+        }
+    }
+    
+    private void add(CategoryStats stats, Sample sample) {
+        double value = Math.log(sample.amount().doubleValue());
+        stats.count++;
+        double delta = value - stats.mean;
+        stats.mean += delta / stats.count;
+        stats.m2 += delta * (value - stats.mean);
+        
+        if (stats.currentDay == null || sample.date().isAfter(stats.currentDay)) {
+            advance(stats, sample.date());
+        }
+        if (sample.date().equals(stats.currentDay)) {
+            stats.currentDayTotal += sample.amount().doubleValue();
+        }
+    }
+    
+    private void remove(CategoryStats stats, Sample sample) {
+        if (stats.count <= 1) {
+            stats.count = 0;
+            stats.mean = 0;
+            stats.m2 = 0;
+        } else {
+            double value = Math.log(sample.amount().doubleValue());
+            double previousMean = stats.mean;
+            stats.count--;
+            stats.mean = (previousMean * (stats.count + 1) - value) / stats.count;
+            stats.m2 = Math.max(0, stats.m2 - (value - stats.mean) * (value - previousMean));
+        }
+        if (sample.date().equals(stats.currentDay)) {
+            stats.currentDayTotal = Math.max(0, stats.currentDayTotal - sample.amount().doubleValue());
+        }
+    }
+    
+    // Close the current day into the rate, then decay it over the empty days up to the new one
+    private void advance(CategoryStats stats, LocalDate day) {
+        if (stats.currentDay != null) {
+            stats.dailyRate = rateAt(stats, day);
+        }
+        stats.currentDay = day;
+        stats.currentDayTotal = 0;
+    }
+    
+    private double rateAt(CategoryStats stats, LocalDate day) {
+        long gap = ChronoUnit.DAYS.between(stats.currentDay, day);
+        if (gap <= 0) {
+            return stats.dailyRate;
+        }
+        double closed = rateWeight * stats.currentDayTotal + (1 - rateWeight) * stats.dailyRate;
+        return closed * Math.pow(1 - rateWeight, gap - 1);
+    }
+    
+    private void loadAsync(Long userId) {
+        if (!loading.add(userId)) {
+            return;
+        }
+        try {
+            loader.execute(() -> {
+                try {
+                    if (cache.getIfPresent(userId) == null) {
+                        load(userId);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Loading anomaly statistics for user {} failed", userId, e);
+                } finally {
+                    loading.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(userId);
+        }
+    }
+    
+    private void load(Long userId) {
+        LocalDate today = LocalDate.now();
+        LocalDate rateStart = today.minusDays(3L * rateDays);
+        Map<Long, CategoryStats> categories = new HashMap<>();
+        try {
+            readTransaction.executeWithoutResult(status -> {
+                // Writes whose commit callback runs from here on may be missing from the snapshot read below
+                guards.put(userId, new LoadGuard());
+                readStats(userId, rateStart, today, categories);
+            });
+            guards.compute(userId, (id, guard) -> {
+                for (Write write : guard.pending) {
+                    applyTo(categories, write.added(), write.removed());
+                }
+                cache.put(userId, categories);
+                return null;
+            });
+        } finally {
+            // Left behind only when the load failed
+            guards.remove(userId);
+        }
+    }
+    
+    private void readStats(Long userId, LocalDate rateStart, LocalDate today, Map<Long, CategoryStats> categories) {
+        for (Object[] row : expenseRepository.getLogAmountStats(userId)) {
+            CategoryStats stats = new CategoryStats();
+            stats.count = ((Number) row[1]).longValue();
+            stats.mean = ((Number) row[2]).doubleValue();
+            // Sum of squared deviations from the mean of squares and the squared mean
+            stats.m2 = Math.max(0, stats.count * (((Number) row[3]).doubleValue() - stats.mean * stats.mean));
+            categories.put(((Number) row[0]).longValue(), stats);
+        }
+        // Replay the weighted daily rate over three windows of daily totals
+        Map<Long, TreeMap<LocalDate, Double>> days = new HashMap<>();
+        for (Object[] row : timeSeriesService.loadRows(userId, false, rateStart, today, null)) {
+            days.computeIfAbsent(((Number) row[1]).longValue(), id -> new TreeMap<>())
+                    .merge((LocalDate) row[0], ((Number) row[2]).doubleValue(), Double::sum);
+        }
+        days.forEach((categoryId, totals) -> {
+            CategoryStats stats = categories.computeIfAbsent(categoryId, id -> new CategoryStats());
+            stats.currentDay = rateStart;
+            for (Map.Entry<LocalDate, Double> day : totals.entrySet()) {
+                if (day.getKey().isAfter(stats.currentDay)) {
+                    advance(stats, day.getKey());
+                }
+                stats.currentDayTotal += day.getValue();
+            }
+        });
+    }
+}
@@ -0,0 +1,300 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.BudgetAlertDto;
+import com.financetracker.dto.CategoryDto;
+import com.financetracker.entity.Budget;
+import com.financetracker.entity.BudgetAlert;
+import com.financetracker.entity.BudgetPeriod;
+import com.financetracker.entity.BudgetSpendCounter;
+import com.financetracker.repository.BudgetAlertRepository;
+import com.financetracker.repository.BudgetRepository;
+import com.financetracker.repository.BudgetSpendCounterRepository;
+import com.financetracker.security.CurrentUserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Raises budget threshold alerts off the request path. Committed expense
+ * writes enqueue the (user, category, day) buckets they touched; a single
+ * consumer thread drains the queue in batches and re-evaluates only the
+ * budgets of those categories, for the periods containing those days.
+ * The queue is bounded and producers block when it is full, so events are
+ * delayed under load rather than dropped. Alerts are delivered inside the
+ * transaction that records them, so a failed evaluation or delivery rolls
+ * back and the batch is retried with exponential backoff; while it retries
+ * the queue fills and producers wait. A batch that still fails is kept in
+ * a dead-letter set and re-run every redrive interval. Delivery is
+ * therefore at least once.
+ */
+@Service
+public class BudgetAlertService {
+    
+    private static final Logger log = LoggerFactory.getLogger(BudgetAlertService.class);
+    
+    private record BudgetCheck(Long userId, Long categoryId, LocalDate date) {
+    }
+    
+    @Autowired
+    private BudgetRepository budgetRepository;
+    
+    @Autowired
+    private BudgetSpendCounterRepository counterRepository;
+    
+    @Autowired
+    private BudgetAlertRepository alertRepository;
+    
+    @Autowired
+    private BudgetAlertSink alertSink;
+    
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${budget.alerts.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${budget.alerts.batch-size:500}")
+    private int batchSize;
+    
+    // Percent of the budget limit at which an alert is raised
+    @Value("${budget.alerts.thresholds:80,100}")
+    private int[] thresholds;
+    
+    @Value("${budget.alerts.retry.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${budget.alerts.retry.initial-backoff-ms:200}")
+    private long initialBackoffMs;
+    
+    @Value("${budget.alerts.retry.max-backoff-ms:10000}")
+    private long maxBackoffMs;
+    
+    @Value("${budget.alerts.dead-letter.redrive-interval-ms:60000}")
+    private long redriveIntervalMs;
+    
+    private BlockingQueue<BudgetCheck> queue;
+    // Checks whose batch failed every attempt; a set, so it is bounded by the distinct buckets
+    private final Set<BudgetCheck> deadLetters = ConcurrentHashMap.newKeySet();
+    private Thread consumer;
+    private volatile boolean running;
+    
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gaugeCollectionSize("budget.alerts.queue.size", List.of(), queue);
+        meterRegistry.gaugeCollectionSize("budget.alerts.dead-letter.size", List.of(), deadLetters);
+        running = true;
+        consumer = new Thread(this::consume, "budget-alerts");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+    
+    @PreDestroy
+    void stop() {
+        running = false;
+        consumer.interrupt();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        Set<BudgetCheck> checks = new LinkedHashSet<>();
+        for (ExpenseChangedEvent.CategoryDay categoryDay : event.getCategoryDays()) {
+            checks.add(new BudgetCheck(event.getUserId(), categoryDay.getCategoryId(), categoryDay.getDate()));
+        }
+        try {
+            for (BudgetCheck check : checks) {
+                queue.put(check);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while queueing budget checks for user {}", event.getUserId());
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public List<BudgetAlertDto> getRecentAlerts() {
+        Long userId = currentUserService.getCurrentUserId();
+        return alertRepository.findTop100ByUserIdOrderByCreatedAtDescIdDesc(userId)
+                .stream()
+                .map(alert -> toDto(alert.getUserId(), alert.getBudgetId(), alert.getCategoryId(), alert.getPeriod(),
+                        alert.getPeriodStart(), alert.getThreshold(), alert.getSpent(), alert.getLimitAmount(),
+                        alert.getCreatedAt()))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Number of checks waiting for the consumer.
+     */
+    public int getPendingChecks() {
+        return queue.size();
+    }
+    
+    /**
+     * Number of checks whose batch failed every attempt and waits for the next redrive.
+     */
+    public int getDeadLetterChecks() {
+        return deadLetters.size();
+    }
+    
+    private void consume() {
+        List<BudgetCheck> batch = new ArrayList<>(batchSize);
+        long nextRedrive = System.nanoTime() + redriveIntervalMs * 1_000_000;
+        while (running) {
+            try {
+                if (!deadLetters.isEmpty() && System.nanoTime() - nextRedrive >= 0) {
+                    for (BudgetCheck check : deadLetters) {
+                        if (batch.size() == batchSize) {
+                            break;
+                        }
+                        batch.add(check);
+                    }
+                    batch.forEach(deadLetters::remove);
+                    nextRedrive = System.nanoTime() + redriveIntervalMs * 1_000_000;
+                    log.info("Retrying {} dead-lettered budget checks", batch.size());
+                } else {
+                    BudgetCheck first = queue.poll(redriveIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void process(List<BudgetCheck> batch) throws InterruptedException {
+        long backoffMs = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                evaluateAndDeliver(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    deadLetters.addAll(batch);
+                    log.error("Budget alert batch of {} checks failed {} times; dead-lettered until the next redrive",
+                            batch.size(), attempt, e);
+                    return;
+                }
+                log.warn("Budget alert batch of {} checks failed (attempt {} of {}); retrying in {} ms",
+                        batch.size(), attempt, maxAttempts, backoffMs, e);
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            }
+        }
+    }
+    
+    private void evaluateAndDeliver(List<BudgetCheck> batch) {
+        // user -> category -> touched days
+        Map<Long, Map<Long, Set<LocalDate>>> touched = new HashMap<>();
+        for (BudgetCheck check : batch) {
+            touched.computeIfAbsent(check.userId(), id -> new HashMap<>())
+                    .computeIfAbsent(check.categoryId(), id -> new HashSet<>())
+                    .add(check.date());
+        }
+        
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<BudgetAlertDto> raised = new ArrayList<>();
+            touched.forEach((userId, byCategory) -> {
+                for (Budget budget : budgetRepository.findByUserIdOrderByIdAsc(userId)) {
+                    Set<LocalDate> days = byCategory.get(budget.getCategory().getId());
+                    if (days == null) {
+                        continue;
+                    }
+                    BudgetPeriod period = BudgetPeriod.from(budget.getPeriod());
+                    Set<LocalDate> periodStarts = days.stream()
+                            .filter(day -> BudgetService.isActiveOn(budget, day))
+                            .map(period::startOf)
+                            .collect(Collectors.toSet());
+                    for (LocalDate periodStart : periodStarts) {
+                        counterRepository.findByUserIdAndPeriodAndPeriodStartAndCategoryId(
+                                        userId, period.name(), periodStart, budget.getCategory().getId())
+                                .ifPresent(counter -> raiseCrossedThresholds(budget, period, counter, raised));
+                    }
+                }
+            });
+            // Delivered before commit: a failing sink rolls back the dedup rows so the retry raises them again
+            if (!raised.isEmpty()) {
+                alertSink.deliver(raised);
+            }
+        });
+    }
+    
+    private void raiseCrossedThresholds(Budget budget, BudgetPeriod period, BudgetSpendCounter counter,
+                                        List<BudgetAlertDto> raised) {
+        BigDecimal spentPercent = counter.getTotalAmount().multiply(BigDecimal.valueOf(100));
+        for (int threshold : thresholds) {
+            if (spentPercent.compareTo(budget.getAmount().multiply(BigDecimal.valueOf(threshold))) < 0) {
+                continue;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            int inserted = alertRepository.insertIfAbsent(counter.getUserId(), budget.getId(), counter.getCategoryId(),
+                    period.name(), counter.getPeriodStart(), threshold, counter.getTotalAmount(), budget.getAmount(), now);
+            if (inserted > 0) {
+                raised.add(toDto(counter.getUserId(), budget.getId(), counter.getCategoryId(), period.name(),
+                        counter.getPeriodStart(), threshold, counter.getTotalAmount(), budget.getAmount(), now));
+            }
+        }
+    }
+    
+    private BudgetAlertDto toDto(Long userId, Long budgetId, Long categoryId, String period, LocalDate periodStart,
+                                 Integer threshold, BigDecimal spent, BigDecimal limit, LocalDateTime createdAt) {
+        BudgetAlertDto dto = new BudgetAlertDto();
+        dto.setUserId(userId);
+        dto.setBudgetId(budgetId);
+        dto.setCategoryId(categoryId);
+        CategoryDto category = categoryRegistry.get(categoryId);
+        if (category != null) {
+            dto.setCategoryName(category.getName());
+        }
+        dto.setPeriod(period);
+        dto.setPeriodStart(periodStart);
+        dto.setThreshold(threshold);
+        dto.setSpent(spent);
+        dto.setLimit(limit);
+        dto.setCreatedAt(createdAt);
+        return dto;
+    }
+}
@@ -0,0 +1,15 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.BudgetAlertDto;
+
+import java.util.List;
+
+/**
+ * Destination for budget threshold alerts, selected with
+ * {@code budget.alerts.sink}. Called from the alert consumer thread with
+ * alerts that have already been deduplicated.
+ */
+public interface BudgetAlertSink {
+    
+    void deliver(List<BudgetAlertDto> alerts);
+}
@@ -0,0 +1,175 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.BudgetDto;
+import com.financetracker.dto.BudgetRequest;
+import com.financetracker.dto.BudgetStatusDto;
+import com.financetracker.dto.CategoryDto;
+import com.financetracker.entity.Budget;
+import com.financetracker.entity.BudgetPeriod;
+import com.financetracker.entity.BudgetSpendCounter;
+import com.financetracker.entity.User;
+import com.financetracker.repository.BudgetRepository;
+import com.financetracker.repository.ExpenseCategoryRepository;
+import com.financetracker.security.CurrentUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class BudgetService {
+    
+    @Autowired
+    private BudgetRepository budgetRepository;
+    
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+    
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+    
+    @Autowired
+    private BudgetSpendService budgetSpendService;
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Transactional(readOnly = true)
+    public List<BudgetDto> getAllBudgets() {
+        User user = currentUserService.getCurrentUser();
+        return budgetRepository.findByUserOrderByIdAsc(user)
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
+    public BudgetDto getBudgetById(Long id) {
+        return convertToDto(findOwnedBudget(id, "access"));
+    }
+    
+    @Transactional
+    public BudgetDto createBudget(BudgetRequest request) {
+        Budget budget = new Budget();
+        budget.setUser(currentUserService.getCurrentUser());
+        applyRequest(budget, request);
+        return convertToDto(budgetRepository.save(budget));
+    }
+    
+    @Transactional
+    public BudgetDto updateBudget(Long id, BudgetRequest request) {
+        Budget budget = findOwnedBudget(id, "update");
+        applyRequest(budget, request);
+        return convertToDto(budgetRepository.save(budget));
+    }
+    
+    @Transactional
+    public void deleteBudget(Long id) {
+        budgetRepository.delete(findOwnedBudget(id, "delete"));
+    }
+    
+    /**
+     * Spent vs. limit of every budget active on {@code date}, for the
+     * period of each budget that contains that date. Spend is read from the
+     * running counters with one query, so the cost depends on the number of
+     * budgets only, not on the expense history. Counters cover whole
+     * periods, so a budget starting mid-period also counts earlier spend
+     * in that period.
+     */
+    @Transactional(readOnly = true)
+    public List<BudgetStatusDto> getBudgetStatus(LocalDate date) {
+        User user = currentUserService.getCurrentUser();
+        LocalDate day = date != null ? date : LocalDate.now();
+        
+        List<Budget> budgets = budgetRepository.findByUserOrderByIdAsc(user);
+        if (budgets.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, BudgetSpendCounter> counters = budgetSpendService.getCurrentCounters(user.getId(), day);
+        
+        List<BudgetStatusDto> statuses = new ArrayList<>();
+        for (Budget budget : budgets) {
+            if (!isActiveOn(budget, day)) {
+                continue;
+            }
+            BudgetPeriod period = BudgetPeriod.from(budget.getPeriod());
+            Long categoryId = budget.getCategory().getId();
+            BudgetSpendCounter counter = counters.get(BudgetSpendService.key(period, categoryId));
+            BigDecimal spent = counter != null ? counter.getTotalAmount() : BigDecimal.ZERO;
+            
+            BudgetStatusDto status = new BudgetStatusDto();
+            status.setBudgetId(budget.getId());
+            status.setCategoryId(categoryId);
+            CategoryDto category = categoryRegistry.get(categoryId);
+            if (category != null) {
+                status.setCategoryName(category.getName());
+                status.setCategoryIcon(category.getIcon());
+            }
+            status.setPeriod(period.name());
+            status.setPeriodStart(period.startOf(day));
+            status.setPeriodEnd(period.endOf(day));
+            status.setLimit(budget.getAmount());
+            status.setSpent(spent);
+            status.setRemaining(budget.getAmount().subtract(spent));
+            status.setPercentUsed(spent.multiply(BigDecimal.valueOf(100))
+                    .divide(budget.getAmount(), 2, RoundingMode.HALF_UP));
+            status.setTransactionCount(counter != null ? counter.getTransactionCount() : 0L);
+            status.setExceeded(spent.compareTo(budget.getAmount()) > 0);
+            statuses.add(status);
+        }
+        return statuses;
+    }
+    
+    static boolean isActiveOn(Budget budget, LocalDate day) {
+        return !day.isBefore(budget.getStartDate())
+                && (budget.getEndDate() == null || !day.isAfter(budget.getEndDate()));
+    }
+    
+    private Budget findOwnedBudget(Long id, String action) {
+        User user = currentUserService.getCurrentUser();
+        Budget budget = budgetRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
+        
+        if (!budget.getUser().getId().equals(user.getId())) {
+            throw new RuntimeException("Unauthorized to " + action + " this budget");
+        }
+        return budget;
+    }
+    
+    private void applyRequest(Budget budget, BudgetRequest request) {
+        categoryRegistry.require(request.getCategoryId());
+        if (request.getEndDate() != null && request.getEndDate().isBefore(request.getStartDate())) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        BudgetPeriod period = BudgetPeriod.from(request.getPeriod() != null ? request.getPeriod() : "MONTHLY");
+        
+        budget.setCategory(categoryRepository.getReferenceById(request.getCategoryId()));
+        budget.setAmount(request.getAmount());
+        budget.setPeriod(period.name());
+        budget.setStartDate(request.getStartDate());
+        budget.setEndDate(request.getEndDate());
+    }
+    
+    private BudgetDto convertToDto(Budget budget) {
+        BudgetDto dto = new BudgetDto();
+        dto.setId(budget.getId());
+        dto.setCategoryId(budget.getCategory().getId());
+        CategoryDto category = categoryRegistry.get(dto.getCategoryId());
+        if (category != null) {
+            dto.setCategoryName(category.getName());
+            dto.setCategoryIcon(category.getIcon());
+        }
+        dto.setAmount(budget.getAmount());
+        dto.setPeriod(budget.getPeriod());
+        dto.setStartDate(budget.getStartDate());
+        dto.setEndDate(budget.getEndDate());
+        return dto;
+    }
+}
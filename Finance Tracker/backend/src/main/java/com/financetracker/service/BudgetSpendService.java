@@ -0,0 +1,83 @@
+package com.financetracker.service;
+
+import com.financetracker.entity.BudgetPeriod;
+import com.financetracker.entity.BudgetSpendCounter;
+import com.financetracker.repository.BudgetSpendCounterRepository;
+import com.financetracker.repository.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maintains the budget_spend_counters table: one running total per user,
+ * category and weekly, monthly or yearly period. Counters are adjusted in
+ * the transaction of the expense write that changes them.
+ */
+@Service
+public class BudgetSpendService {
+    
+    @Autowired
+    private BudgetSpendCounterRepository counterRepository;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Transactional
+    public void applyDelta(Long userId, LocalDate expenseDate, Long categoryId, BigDecimal amount, long count) {
+        for (BudgetPeriod period : BudgetPeriod.values()) {
+            LocalDate periodStart = period.startOf(expenseDate);
+            counterRepository.applyDelta(userId, period.name(), periodStart, categoryId, amount, count);
+            if (count < 0) {
+                counterRepository.deleteEmptyCounter(userId, period.name(), periodStart, categoryId);
+            }
+        }
+    }
+    
+    /**
+     * Counters of every period that contains {@code date}, keyed by
+     * {@link #key(BudgetPeriod, Long)}.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, BudgetSpendCounter> getCurrentCounters(Long userId, LocalDate date) {
+        Map<String, BudgetSpendCounter> counters = new LinkedHashMap<>();
+        for (BudgetSpendCounter counter : counterRepository.findCurrentCounters(userId,
+                BudgetPeriod.WEEKLY.startOf(date), BudgetPeriod.MONTHLY.startOf(date), BudgetPeriod.YEARLY.startOf(date))) {
+            counters.put(key(BudgetPeriod.valueOf(counter.getPeriod()), counter.getCategoryId()), counter);
+        }
+        return counters;
+    }
+    
+    public static String key(BudgetPeriod period, Long categoryId) {
+        return period.name() + "/" + categoryId;
+    }
+    
+    /**
+     * Recompute all spend counters of one user from the per-day category
+     * totals of the expenses table.
+     */
+    @Transactional
+    public void rebuildForUser(Long userId) {
+        counterRepository.deleteByUserId(userId);
+        
+        Map<String, BudgetSpendCounter> counters = new LinkedHashMap<>();
+        for (Object[] row : expenseRepository.getDailyCategoryTotals(userId)) {
+            LocalDate date = (LocalDate) row[0];
+            Long categoryId = ((Number) row[1]).longValue();
+            BigDecimal amount = (BigDecimal) row[2];
+            long count = ((Number) row[3]).longValue();
+            for (BudgetPeriod period : BudgetPeriod.values()) {
+                LocalDate periodStart = period.startOf(date);
+                BudgetSpendCounter counter = counters.computeIfAbsent(period + "/" + periodStart + "/" + categoryId,
+                        key -> new BudgetSpendCounter(null, userId, period.name(), periodStart, categoryId, BigDecimal.ZERO, 0L));
+                counter.setTotalAmount(counter.getTotalAmount().add(amount));
+                counter.setTransactionCount(counter.getTransactionCount() + count);
+            }
+        }
+        counterRepository.saveAll(counters.values());
+    }
+}
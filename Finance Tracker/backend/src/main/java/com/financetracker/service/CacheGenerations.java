@@ -0,0 +1,65 @@
+package com.financetracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per-key generations that keep a value computed before a write from being
+ * cached after it. Writers {@link #bump} the key they changed; a load reads
+ * the generation before computing, stores its result only if no bump
+ * happened meanwhile, and takes the result back out if a bump lands
+ * between that check and the store.
+ */
+public class CacheGenerations<K> {
+    
+    private final Map<K, AtomicLong> generations = new ConcurrentHashMap<>();
+    
+    public void bump(K key) {
+        generation(key).incrementAndGet();
+    }
+    
+    public void bumpAll() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+    }
+    
+    /**
+     * Loads a value for {@code key} and caches it under the same key; a
+     * value cached by a concurrent load wins and is returned instead.
+     */
+    public <V> V load(K key, Cache<K, V> cache, Supplier<V> loader) {
+        return load(key, loader,
+                loaded -> cache.asMap().merge(key, loaded, (existing, fresh) -> existing),
+                loaded -> cache.asMap().remove(key, loaded));
+    }
+    
+    /**
+     * Loads a value and hands it to {@code store}, which caches it and
+     * returns the value to use; {@code unstore} removes it again. Neither
+     * runs when {@code key} was bumped during the load, and the loaded
+     * value is returned uncached.
+     */
+    public <V> V load(K key, Supplier<V> loader, Function<V, V> store, Consumer<V> unstore) {
+        AtomicLong generation = generation(key);
+        long before = generation.get();
+        V loaded = loader.get();
+        if (generation.get() != before) {
+            return loaded;
+        }
+        V stored = store.apply(loaded);
+        // A write may have bumped the generation between the check and the store
+        if (generation.get() != before) {
+            unstore.accept(loaded);
+        }
+        return stored;
+    }
+    
+    private AtomicLong generation(K key) {
+        return generations.computeIfAbsent(key, id -> new AtomicLong());
+    }
+}
@@ -0,0 +1,245 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.CategoryDto;
+import com.financetracker.dto.CategorySuggestionDto;
+import com.financetracker.repository.CategoryRuleRepository;
+import com.financetracker.repository.ExpenseRepository;
+import com.financetracker.security.CurrentUserService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Suggests a category from an expense's description and location. A user's
+ * rules are compiled into one {@link KeywordMatcher}; when none matches, a
+ * {@link NaiveBayesModel} trained on the user's own expenses guesses. Both
+ * are cached per user. After a write commits, the cached model forgets the
+ * previous text of updated and deleted expenses and learns the current text
+ * of created and updated ones, so it is only retrained from the history
+ * when it was evicted or an update failed.
+ */
+@Service
+public class CategorizationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(CategorizationService.class);
+    
+    private static final int TRAINING_CHUNK_SIZE = 1000;
+    
+    /**
+     * The matcher and model of one user, fetched once and reused for every
+     * row of a batch.
+     */
+    public record Categorizer(KeywordMatcher rules, NaiveBayesModel model, double minConfidence) {
+        
+        /**
+         * Category to assign without asking: a rule match, else a model
+         * guess at or above the confidence threshold, else null.
+         */
+        public Long assign(String description, String location) {
+            KeywordMatcher.Match match = rules.match(description, location);
+            if (match != null) {
+                return match.categoryId();
+            }
+            List<NaiveBayesModel.Prediction> predictions = model.predict(description, location);
+            if (!predictions.isEmpty() && predictions.get(0).probability() >= minConfidence) {
+                return predictions.get(0).categoryId();
+            }
+            return null;
+        }
+    }
+    
+    @Autowired
+    private CategoryRuleRepository categoryRuleRepository;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${categorization.min-confidence:0.6}")
+    private double minConfidence;
+    
+    @Value("${categorization.cache.max-size:1000}")
+    private long maxSize;
+    
+    @Value("${categorization.cache.idle-seconds:3600}")
+    private long idleSeconds;
+    
+    private Cache<Long, KeywordMatcher> matchers;
+    private Cache<Long, NaiveBayesModel> models;
+    private final CacheGenerations<Long> generations = new CacheGenerations<>();
+    private TransactionTemplate readTransaction;
+    
+    @PostConstruct
+    void init() {
+        matchers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofSeconds(idleSeconds))
+                .recordStats()
+                .build();
+        models = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofSeconds(idleSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, matchers, "categorization.rules");
+        CaffeineCacheMetrics.monitor(meterRegistry, models, "categorization.models");
+        
+        // Models are also trained after commit, so rows are read in a fresh transaction
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * Ranked suggestions for the current user: the matching rule first, then
+     * the model's guesses by probability.
+     */
+    public List<CategorySuggestionDto> suggest(String description, String location, int limit) {
+        if (isBlank(description) && isBlank(location)) {
+            throw new RuntimeException("Description or location is required");
+        }
+        Categorizer categorizer = categorizer(currentUserService.getCurrentUser().getId());
+        List<CategorySuggestionDto> suggestions = new ArrayList<>();
+        KeywordMatcher.Match match = categorizer.rules().match(description, location);
+        if (match != null) {
+            suggestions.add(toDto(match.categoryId(), "rule", 1.0, match.pattern()));
+        }
+        for (NaiveBayesModel.Prediction prediction : categorizer.model().predict(description, location)) {
+            if (suggestions.size() >= limit) {
+                break;
+            }
+            if (match == null || !prediction.categoryId().equals(match.categoryId())) {
+                suggestions.add(toDto(prediction.categoryId(), "model", prediction.probability(), null));
+            }
+        }
+        return suggestions.size() > limit ? suggestions.subList(0, limit) : suggestions;
+    }
+    
+    public Categorizer categorizer(Long userId) {
+        return new Categorizer(matcher(userId), model(userId), minConfidence);
+    }
+    
+    /**
+     * Drop a user's compiled rules now and again after the surrounding
+     * transaction commits, so a concurrent load cannot re-cache the old set.
+     */
+    public void invalidateRules(Long userId) {
+        matchers.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    matchers.invalidate(userId);
+                }
+            });
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        Long userId = event.getUserId();
+        // A model being built right now may predate this write, so it must not be cached
+        generations.bump(userId);
+        NaiveBayesModel model = models.getIfPresent(userId);
+        if (model == null) {
+            return;
+        }
+        try {
+            for (ExpenseChangedEvent.PreviousText previous : event.getPreviousTexts()) {
+                model.remove(previous.getCategoryId(), previous.getDescription(), previous.getLocation());
+            }
+            if (event.getType() == ExpenseChangedEvent.Type.DELETED) {
+                return;
+            }
+            List<Long> ids = event.getExpenseIds();
+            for (int from = 0; from < ids.size(); from += TRAINING_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + TRAINING_CHUNK_SIZE, ids.size()));
+                List<Object[]> rows = readTransaction.execute(status ->
+                        expenseRepository.findCategorizationRowsByIds(userId, chunk));
+                for (Object[] row : rows) {
+                    model.add((Long) row[0], (String) row[1], (String) row[2]);
+                }
+            }
+        } catch (RuntimeException e) {
+            models.invalidate(userId);
+            log.error("Categorization model update failed for expenses {} of user {}", event.getExpenseIds(), userId, e);
+        }
+    }
+    
+    private KeywordMatcher matcher(Long userId) {
+        KeywordMatcher cached = matchers.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        // Loaded outside the cache's compute lock so the query never pins a virtual thread
+        List<KeywordMatcher.Rule> rules = readTransaction.execute(status ->
+                categoryRuleRepository.findPatternsByUserId(userId).stream()
+                        .map(row -> new KeywordMatcher.Rule((String) row[0], (Long) row[1]))
+                        .collect(Collectors.toList()));
+        KeywordMatcher loaded = rules.isEmpty() ? KeywordMatcher.empty() : new KeywordMatcher(rules);
+        return matchers.asMap().merge(userId, loaded, (existing, fresh) -> existing);
+    }
+    
+    private NaiveBayesModel model(Long userId) {
+        NaiveBayesModel cached = models.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        return generations.load(userId, models, () -> {
+            long started = System.nanoTime();
+            NaiveBayesModel trained = readTransaction.execute(status -> {
+                NaiveBayesModel model = new NaiveBayesModel();
+                try (Stream<Object[]> rows = expenseRepository.streamCategorizationRowsByUserId(userId)) {
+                    rows.forEach(row -> model.add((Long) row[0], (String) row[1], (String) row[2]));
+                }
+                return model;
+            });
+            log.debug("Trained categorization model for user {} on {} expenses in {} ms",
+                    userId, trained.size(), (System.nanoTime() - started) / 1_000_000);
+            return trained;
+        });
+    }
+    
+    private CategorySuggestionDto toDto(Long categoryId, String source, double confidence, String pattern) {
+        CategoryDto category = categoryRegistry.get(categoryId);
+        return new CategorySuggestionDto(categoryId,
+                category != null ? category.getName() : null,
+                category != null ? category.getIcon() : null,
+                source, confidence, pattern);
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,138 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.CategoryDto;
+import com.financetracker.entity.ExpenseCategory;
+import com.financetracker.entity.listener.EntityChangedEvent;
+import com.financetracker.repository.ExpenseCategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, id-indexed view of the expense_categories table. It is loaded
+ * once the application is ready, before requests arrive, and reloaded on the
+ * next read after any category is inserted, updated or deleted, so reads
+ * normally never query the database.
+ */
+@Component
+public class CategoryRegistry {
+    
+    private record Snapshot(List<CategoryDto> categories, Map<Long, CategoryDto> byId, String etag, long version) {
+    }
+    
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+    
+    // Tags carry the startup time, so a restart never reissues a tag for different rows
+    private final long bootEpoch = System.currentTimeMillis();
+    private volatile Snapshot snapshot;
+    private long loads;
+    
+    // A lock rather than synchronized: the load does I/O and must not pin a virtual thread's carrier
+    private final ReentrantLock loadLock = new ReentrantLock();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        snapshot();
+    }
+    
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.getEntity() instanceof ExpenseCategory) {
+            invalidate();
+        }
+    }
+    
+    public List<CategoryDto> getAll() {
+        return snapshot().categories();
+    }
+    
+    /**
+     * Strong validator for the current category list, suitable for an ETag
+     * header: the snapshot version, which a reload always changes.
+     */
+    public String getEtag() {
+        return snapshot().etag();
+    }
+    
+    /**
+     * Number of the current snapshot, incremented on every reload; responses
+     * that embed category names fold it into their own validators.
+     */
+    public long getVersion() {
+        return snapshot().version();
+    }
+    
+    public CategoryDto get(Long id) {
+        return id == null ? null : snapshot().byId().get(id);
+    }
+    
+    public boolean contains(Long id) {
+        return get(id) != null;
+    }
+    
+    public CategoryDto require(Long id) {
+        CategoryDto category = get(id);
+        if (category == null) {
+            throw new RuntimeException("Category not found");
+        }
+        return category;
+    }
+    
+    /**
+     * Drop the snapshot now and again after the surrounding transaction
+     * commits, so a concurrent reload cannot keep the old rows.
+     */
+    public void invalidate() {
+        snapshot = null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshot = null;
+                }
+            });
+        }
+    }
+    
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            loadLock.lock();
+            try {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return current;
+    }
+    
+    private Snapshot load() {
+        List<CategoryDto> categories = categoryRepository.findAll().stream()
+                .map(category -> new CategoryDto(category.getId(), category.getName(),
+                        category.getDescription(), category.getIcon(), category.getCreatedAt()))
+                .sorted(Comparator.comparing(CategoryDto::getId))
+                .collect(Collectors.toUnmodifiableList());
+        Map<Long, CategoryDto> byId = categories.stream()
+                .collect(Collectors.toUnmodifiableMap(CategoryDto::getId, Function.identity()));
+        // Called under loadLock only
+        long version = ++loads;
+        String etag = "\"" + Long.toString(bootEpoch, 36) + "-" + version + "\"";
+        return new Snapshot(categories, byId, etag, version);
+    }
+}
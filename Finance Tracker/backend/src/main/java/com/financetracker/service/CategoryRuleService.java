@@ -0,0 +1,117 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.CategoryDto;
+import com.financetracker.dto.CategoryRuleDto;
+import com.financetracker.dto.CategoryRuleRequest;
+import com.financetracker.entity.CategoryRule;
+import com.financetracker.entity.User;
+import com.financetracker.repository.CategoryRuleRepository;
+import com.financetracker.repository.ExpenseCategoryRepository;
+import com.financetracker.security.CurrentUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keyword rules that assign a category when their pattern occurs in an
+ * expense's description or location. Every change drops the user's
+ * compiled matcher.
+ */
+@Service
+public class CategoryRuleService {
+    
+    @Autowired
+    private CategoryRuleRepository categoryRuleRepository;
+    
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+    
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+    
+    @Autowired
+    private CategorizationService categorizationService;
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Value("${categorization.rules.max-per-user:1000}")
+    private int maxRulesPerUser;
+    
+    @Transactional(readOnly = true)
+    public List<CategoryRuleDto> getAllRules() {
+        User user = currentUserService.getCurrentUser();
+        return categoryRuleRepository.findByUserIdOrderByIdAsc(user.getId())
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional
+    public CategoryRuleDto createRule(CategoryRuleRequest request) {
+        User user = currentUserService.getCurrentUser();
+        if (categoryRuleRepository.countByUserId(user.getId()) >= maxRulesPerUser) {
+            throw new RuntimeException("A user may have at most " + maxRulesPerUser + " category rules");
+        }
+        CategoryRule rule = new CategoryRule();
+        rule.setUser(user);
+        applyRequest(rule, request);
+        CategoryRuleDto saved = convertToDto(categoryRuleRepository.save(rule));
+        categorizationService.invalidateRules(user.getId());
+        return saved;
+    }
+    
+    @Transactional
+    public CategoryRuleDto updateRule(Long id, CategoryRuleRequest request) {
+        CategoryRule rule = findOwnedRule(id, "update");
+        applyRequest(rule, request);
+        CategoryRuleDto saved = convertToDto(categoryRuleRepository.save(rule));
+        categorizationService.invalidateRules(rule.getUser().getId());
+        return saved;
+    }
+    
+    @Transactional
+    public void deleteRule(Long id) {
+        CategoryRule rule = findOwnedRule(id, "delete");
+        categoryRuleRepository.delete(rule);
+        categorizationService.invalidateRules(rule.getUser().getId());
+    }
+    
+    private CategoryRule findOwnedRule(Long id, String action) {
+        User user = currentUserService.getCurrentUser();
+        CategoryRule rule = categoryRuleRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Category rule not found"));
+        
+        if (!rule.getUser().getId().equals(user.getId())) {
+            throw new RuntimeException("Unauthorized to " + action + " this category rule");
+        }
+        return rule;
+    }
+    
+    private void applyRequest(CategoryRule rule, CategoryRuleRequest request) {
+        categoryRegistry.require(request.getCategoryId());
+        String pattern = KeywordMatcher.normalize(request.getPattern());
+        if (pattern.isEmpty()) {
+            throw new RuntimeException("Pattern is required");
+        }
+        rule.setPattern(pattern);
+        rule.setCategory(categoryRepository.getReferenceById(request.getCategoryId()));
+    }
+    
+    private CategoryRuleDto convertToDto(CategoryRule rule) {
+        CategoryRuleDto dto = new CategoryRuleDto();
+        dto.setId(rule.getId());
+        dto.setPattern(rule.getPattern());
+        dto.setCategoryId(rule.getCategory().getId());
+        CategoryDto category = categoryRegistry.get(dto.getCategoryId());
+        if (category != null) {
+            dto.setCategoryName(category.getName());
+            dto.setCategoryIcon(category.getIcon());
+        }
+        return dto;
+    }
+}
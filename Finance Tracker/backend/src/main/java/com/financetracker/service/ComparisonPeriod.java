@@ -0,0 +1,45 @@
+package com.financetracker.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Periods an analytics range can be compared with.
+ */
+public enum ComparisonPeriod {
+    /** The period of the same length just before; whole months shift by months. */
+    PREVIOUS,
+    /** The same dates one year earlier. */
+    YEAR;
+    
+    public LocalDate startFor(LocalDate startDate, LocalDate endDate) {
+        if (this == YEAR) {
+            return startDate.minusYears(1);
+        }
+        if (isWholeMonths(startDate, endDate)) {
+            return startDate.minusMonths(ChronoUnit.MONTHS.between(startDate, endDate.plusDays(1)));
+        }
+        return startDate.minusDays(ChronoUnit.DAYS.between(startDate, endDate) + 1);
+    }
+    
+    public LocalDate endFor(LocalDate startDate, LocalDate endDate) {
+        return this == YEAR ? endDate.minusYears(1) : startDate.minusDays(1);
+    }
+    
+    public String label() {
+        return name().toLowerCase();
+    }
+    
+    private static boolean isWholeMonths(LocalDate startDate, LocalDate endDate) {
+        return startDate.getDayOfMonth() == 1 && endDate.equals(YearMonth.from(endDate).atEndOfMonth());
+    }
+    
+    public static ComparisonPeriod from(String period) {
+        try {
+            return valueOf(period.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException("Unknown comparison period: " + period);
+        }
+    }
+}
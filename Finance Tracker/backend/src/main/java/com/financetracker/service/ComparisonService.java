@@ -0,0 +1,197 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.CategoryDto;
+import com.financetracker.dto.ComparisonDto;
+import com.financetracker.dto.PeriodDto;
+import com.financetracker.dto.WindowStatsDto;
+import com.financetracker.security.CurrentUserService;
+import com.financetracker.util.AmountUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Period-over-period comparisons and trailing rolling averages. The union of
+ * every requested window is read once as per-day, per-category rows; each
+ * series is then turned into prefix sums, so any window total is one
+ * subtraction and the cost does not grow with the number of windows.
+ */
+@Service
+public class ComparisonService {
+    
+    private static final String CURRENT = "current";
+    
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+    
+    // Longest range, in days, that one comparison request may scan
+    @Value("${analytics.comparison.max-days:3660}")
+    private int maxDays;
+    
+    /**
+     * Daily amounts and counts of one series from the union start, with
+     * prefix sums so that any window total is a single subtraction.
+     */
+    private static class DailySeries {
+        final BigDecimal[] amounts;
+        final long[] counts;
+        BigDecimal[] amountPrefix;
+        long[] countPrefix;
+        
+        DailySeries(int days) {
+            amounts = new BigDecimal[days];
+            Arrays.fill(amounts, BigDecimal.ZERO);
+            counts = new long[days];
+        }
+        
+        void add(int day, BigDecimal amount, long count) {
+            amounts[day] = amounts[day].add(amount);
+            counts[day] += count;
+        }
+        
+        void computePrefixSums() {
+            amountPrefix = new BigDecimal[amounts.length + 1];
+            countPrefix = new long[amounts.length + 1];
+            amountPrefix[0] = BigDecimal.ZERO;
+            for (int i = 0; i < amounts.length; i++) {
+                amountPrefix[i + 1] = amountPrefix[i].add(amounts[i]);
+                countPrefix[i + 1] = countPrefix[i] + counts[i];
+            }
+        }
+        
+        // Inclusive day offsets
+        BigDecimal sum(int from, int to) {
+            return amountPrefix[to + 1].subtract(amountPrefix[from]);
+        }
+        
+        long count(int from, int to) {
+            return countPrefix[to + 1] - countPrefix[from];
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public ComparisonDto compare(LocalDate startDate, LocalDate endDate, List<ComparisonPeriod> comparisons,
+                                 List<Integer> rollingWindows, Collection<Long> categoryIds) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("endDate must not be before startDate");
+        }
+        for (Integer window : rollingWindows) {
+            if (window < 1 || window > 366) {
+                throw new RuntimeException("Rolling windows must be between 1 and 366 days");
+            }
+        }
+        
+        List<PeriodDto> periods = new ArrayList<>();
+        periods.add(new PeriodDto(CURRENT, startDate, endDate));
+        for (ComparisonPeriod comparison : comparisons) {
+            periods.add(new PeriodDto(comparison.label(),
+                    comparison.startFor(startDate, endDate), comparison.endFor(startDate, endDate)));
+        }
+        
+        int longestWindow = rollingWindows.stream().mapToInt(Integer::intValue).max().orElse(1);
+        LocalDate unionStart = startDate.minusDays(longestWindow - 1);
+        for (PeriodDto period : periods) {
+            if (period.getStartDate().isBefore(unionStart)) {
+                unionStart = period.getStartDate();
+            }
+        }
+        long days = ChronoUnit.DAYS.between(unionStart, endDate) + 1;
+        if (days > maxDays) {
+            throw new RuntimeException("Comparison range too long (max " + maxDays + " days)");
+        }
+        
+        DailySeries total = new DailySeries((int) days);
+        Map<Long, DailySeries> byCategory = new HashMap<>();
+        List<Object[]> rows = timeSeriesService.loadRows(
+                currentUserService.getCurrentUserId(), false, unionStart, endDate, categoryIds);
+        for (Object[] row : rows) {
+            int day = (int) ChronoUnit.DAYS.between(unionStart, (LocalDate) row[0]);
+            Long categoryId = ((Number) row[1]).longValue();
+            BigDecimal amount = AmountUtil.toBigDecimal(row[2]);
+            long count = ((Number) row[3]).longValue();
+            total.add(day, amount, count);
+            byCategory.computeIfAbsent(categoryId, id -> new DailySeries((int) days)).add(day, amount, count);
+        }
+        
+        ComparisonDto dto = new ComparisonDto();
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        dto.setPeriods(periods);
+        dto.setTotal(toWindowStats(null, total, unionStart, periods, rollingWindows));
+        LocalDate origin = unionStart;
+        dto.setCategories(byCategory.entrySet().stream()
+                .map(entry -> toWindowStats(entry.getKey(), entry.getValue(), origin, periods, rollingWindows))
+                .sorted((a, b) -> b.getTotals().get(CURRENT).compareTo(a.getTotals().get(CURRENT)))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+    
+    private WindowStatsDto toWindowStats(Long categoryId, DailySeries series, LocalDate origin,
+                                         List<PeriodDto> periods, List<Integer> rollingWindows) {
+        series.computePrefixSums();
+        
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (PeriodDto period : periods) {
+            int from = (int) ChronoUnit.DAYS.between(origin, period.getStartDate());
+            int to = (int) ChronoUnit.DAYS.between(origin, period.getEndDate());
+            totals.put(period.getLabel(), series.sum(from, to));
+            counts.put(period.getLabel(), series.count(from, to));
+        }
+        
+        BigDecimal current = totals.get(CURRENT);
+        Map<String, BigDecimal> changePercent = new LinkedHashMap<>();
+        for (PeriodDto period : periods.subList(1, periods.size())) {
+            BigDecimal previous = totals.get(period.getLabel());
+            changePercent.put(period.getLabel(), previous.signum() == 0
+                    ? null
+                    : current.subtract(previous).multiply(BigDecimal.valueOf(100)).divide(previous, 2, RoundingMode.HALF_UP));
+        }
+        
+        PeriodDto currentPeriod = periods.get(0);
+        int first = (int) ChronoUnit.DAYS.between(origin, currentPeriod.getStartDate());
+        int last = (int) ChronoUnit.DAYS.between(origin, currentPeriod.getEndDate());
+        Map<String, List<BigDecimal>> rollingAverages = new LinkedHashMap<>();
+        for (Integer window : rollingWindows) {
+            BigDecimal divisor = BigDecimal.valueOf(window);
+            List<BigDecimal> averages = new ArrayList<>(last - first + 1);
+            for (int day = first; day <= last; day++) {
+                averages.add(series.sum(day - window + 1, day).divide(divisor, 2, RoundingMode.HALF_UP));
+            }
+            rollingAverages.put(window + "d", averages);
+        }
+        
+        WindowStatsDto stats = new WindowStatsDto();
+        if (categoryId != null) {
+            CategoryDto category = categoryRegistry.get(categoryId);
+            stats.setCategoryId(categoryId);
+            stats.setCategoryName(category != null ? category.getName() : null);
+            stats.setCategoryIcon(category != null ? category.getIcon() : null);
+        }
+        stats.setTotals(totals);
+        stats.setCounts(counts);
+        stats.setChangePercent(changePercent);
+        stats.setRollingAverages(rollingAverages);
+        return stats;
+    }
+}
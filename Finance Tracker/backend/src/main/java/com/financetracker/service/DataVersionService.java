@@ -0,0 +1,56 @@
+package com.financetracker.service;
+
+import com.financetracker.security.CurrentUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic per-user version of expense data, bumped after every committed
+ * expense write and used as the ETag of expense and analytics responses.
+ * Those responses carry category names, so the tag also includes the
+ * {@link CategoryRegistry} version and a category change alters it.
+ * Versions live in memory, so the ETag also carries the startup time of
+ * this instance; a restart changes every tag instead of reusing old ones.
+ * Another instance never sees this one's bumps, so conditional requests
+ * are only sound with a single backend instance or sticky sessions.
+ */
+@Service
+public class DataVersionService {
+    
+    private final long bootEpoch = System.currentTimeMillis();
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+    
+    public long getVersion(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return version == null ? 0 : version.get();
+    }
+    
+    /**
+     * ETag of the current user's data. {@code variant} distinguishes
+     * representations of the same URL that depend on more than the data,
+     * such as a defaulted date range.
+     */
+    public String getEtag(String variant) {
+        long version = getVersion(currentUserService.getCurrentUserId());
+        String tag = Long.toString(bootEpoch, 36) + "-" + version + "-" + categoryRegistry.getVersion();
+        return "\"" + (variant == null ? tag : tag + "-" + variant) + "\"";
+    }
+    
+    // Bumped only after commit, so a tag is never paired with data older than it
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        versions.computeIfAbsent(event.getUserId(), id -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -0,0 +1,45 @@
+package com.financetracker.service;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published inside the transaction of every expense write. Listeners that
+ * do follow-up work should run after commit so they never see rolled back
+ * changes and never delay the write itself.
+ */
+@Value
+public class ExpenseChangedEvent {
+    
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+    
+    Long userId;
+    Type type;
+    List<Long> expenseIds;
+    // Category/day buckets whose totals changed, including the previous bucket of an update
+    List<CategoryDay> categoryDays;
+    // What an updated or deleted expense looked like before the write; empty for creations
+    List<PreviousText> previousTexts;
+    
+    @Value
+    public static class CategoryDay {
+        Long categoryId;
+        LocalDate date;
+        // Net change of the bucket's total; negative for the previous bucket of an update
+        BigDecimal amountDelta;
+    }
+    
+    @Value
+    public static class PreviousText {
+        Long categoryId;
+        String description;
+        String location;
+    }
+}
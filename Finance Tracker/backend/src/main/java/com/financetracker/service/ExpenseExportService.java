@@ -0,0 +1,133 @@
+package com.financetracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financetracker.dto.ExpenseDto;
+import com.financetracker.entity.Expense;
+import com.financetracker.entity.User;
+import com.financetracker.repository.ExpenseRepository;
+import com.financetracker.security.CurrentUserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's full expense history as NDJSON or CSV. Rows are read
+ * through a forward-only cursor and written straight to the response, and
+ * the persistence context is cleared as the export goes, so heap usage does
+ * not depend on the size of the history.
+ */
+@Service
+public class ExpenseExportService {
+    
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+    
+    private static final int CLEAR_INTERVAL = 500;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Resolve the user on the request thread and return a body that performs
+     * the export when the container writes the response.
+     */
+    public StreamingResponseBody export(String format) {
+        if (!FORMAT_NDJSON.equals(format) && !FORMAT_CSV.equals(format)) {
+            throw new RuntimeException("Unsupported export format: " + format);
+        }
+        User user = currentUserService.getCurrentUser();
+        
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        
+        return outputStream -> transactionTemplate.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            try (Stream<Expense> expenses = expenseRepository.streamByUser(user)) {
+                if (FORMAT_CSV.equals(format)) {
+                    writer.write("id,expenseDate,categoryId,categoryName,amount,description,paymentMethod,location,notes,createdAt\n");
+                }
+                
+                int written = 0;
+                Iterator<Expense> iterator = expenses.iterator();
+                while (iterator.hasNext()) {
+                    ExpenseDto dto = expenseService.convertToDto(iterator.next());
+                    if (FORMAT_CSV.equals(format)) {
+                        writeCsvRow(writer, dto);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(dto));
+                        writer.write('\n');
+                    }
+                    
+                    if (++written % CLEAR_INTERVAL == 0) {
+                        entityManager.clear();
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    private void writeCsvRow(Writer writer, ExpenseDto dto) throws IOException {
+        writer.write(String.valueOf(dto.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getExpenseDate()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getCategoryId()));
+        writer.write(',');
+        writer.write(csv(dto.getCategoryName()));
+        writer.write(',');
+        writer.write(dto.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(csv(dto.getDescription()));
+        writer.write(',');
+        writer.write(csv(dto.getPaymentMethod()));
+        writer.write(',');
+        writer.write(csv(dto.getLocation()));
+        writer.write(',');
+        writer.write(csv(dto.getNotes()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getCreatedAt()));
+        writer.write('\n');
+    }
+    
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,185 @@
+package com.financetracker.service;
+
+import com.financetracker.entity.Expense;
+import com.financetracker.entity.ExpenseDailyRollup;
+import com.financetracker.repository.ExpenseAmountBinRepository;
+import com.financetracker.repository.ExpenseDailyRollupRepository;
+import com.financetracker.repository.ExpenseRepository;
+import com.financetracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the expense_daily_rollup table, the per-day amount histograms
+ * in expense_amount_bins and, through {@link BudgetSpendService}, the budget
+ * spend counters. Expense writes call
+ * the record/remove methods inside their own transaction; the rebuild and
+ * consistency methods recompute buckets from the expenses table.
+ */
+@Service
+public class ExpenseRollupService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExpenseRollupService.class);
+    
+    @Autowired
+    private ExpenseDailyRollupRepository rollupRepository;
+    
+    @Autowired
+    private ExpenseAmountBinRepository binRepository;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private BudgetSpendService budgetSpendService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${rollup.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+    
+    @Transactional
+    public void recordExpense(Expense expense) {
+        applyDelta(expense.getUser().getId(), expense.getExpenseDate(),
+                expense.getCategory().getId(), expense.getAmount(), 1);
+        applyBinDelta(expense.getUser().getId(), expense.getExpenseDate(),
+                expense.getCategory().getId(), AmountSketch.binOf(expense.getAmount()), 1);
+    }
+    
+    @Transactional
+    public void removeExpense(Long userId, LocalDate expenseDate, Long categoryId, BigDecimal amount) {
+        applyDelta(userId, expenseDate, categoryId, amount.negate(), -1);
+        applyBinDelta(userId, expenseDate, categoryId, AmountSketch.binOf(amount), -1);
+    }
+    
+    /**
+     * Adds the individual amounts of one (day, category) bucket to its
+     * histogram, one upsert per distinct bin.
+     */
+    @Transactional
+    public void recordAmounts(Long userId, LocalDate expenseDate, Long categoryId, List<BigDecimal> amounts) {
+        Map<Integer, Long> binCounts = new HashMap<>();
+        for (BigDecimal amount : amounts) {
+            binCounts.merge(AmountSketch.binOf(amount), 1L, Long::sum);
+        }
+        binCounts.forEach((bin, count) -> applyBinDelta(userId, expenseDate, categoryId, bin, count));
+    }
+    
+    private void applyBinDelta(Long userId, LocalDate expenseDate, Long categoryId, int bin, long count) {
+        binRepository.applyDelta(userId, expenseDate, categoryId, bin, count);
+        if (count < 0) {
+            binRepository.deleteEmptyBin(userId, expenseDate, categoryId, bin);
+        }
+    }
+    
+    @Transactional
+    public void applyDelta(Long userId, LocalDate expenseDate, Long categoryId, BigDecimal amount, long count) {
+        rollupRepository.applyDelta(userId, expenseDate, categoryId, amount, count);
+        if (count < 0) {
+            rollupRepository.deleteEmptyBucket(userId, expenseDate, categoryId);
+        }
+        budgetSpendService.applyDelta(userId, expenseDate, categoryId, amount, count);
+    }
+    
+    /**
+     * Recompute all rollup buckets, amount histograms and spend counters of
+     * one user from the expenses table.
+     */
+    @Transactional
+    public void rebuildForUser(Long userId) {
+        rollupRepository.deleteByUserId(userId);
+        rollupRepository.rebuildForUser(userId);
+        rebuildBinsForUser(userId);
+        budgetSpendService.rebuildForUser(userId);
+    }
+    
+    // Bins are computed here rather than in SQL so they match the write path exactly
+    private void rebuildBinsForUser(Long userId) {
+        record BinKey(LocalDate expenseDate, Long categoryId, int bin) {
+        }
+        Map<BinKey, Long> binCounts = new HashMap<>();
+        try (Stream<Object[]> rows = expenseRepository.streamAmountsByUserId(userId)) {
+            rows.forEach(row -> binCounts.merge(
+                    new BinKey((LocalDate) row[0], ((Number) row[1]).longValue(), AmountSketch.binOf((BigDecimal) row[2])),
+                    1L, Long::sum));
+        }
+        binRepository.deleteByUserId(userId);
+        binCounts.forEach((key, count) ->
+                binRepository.applyDelta(userId, key.expenseDate(), key.categoryId(), key.bin(), count));
+    }
+    
+    /**
+     * Recompute rollups for every user, one transaction per user.
+     */
+    public void rebuildAll() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Long> userIds = userRepository.findAllIds();
+        for (Long userId : userIds) {
+            transactionTemplate.executeWithoutResult(status -> rebuildForUser(userId));
+        }
+        log.info("Rebuilt expense rollups for {} users", userIds.size());
+    }
+    
+    /**
+     * Compare the stored rollups of a user with buckets recomputed from the
+     * expenses table. Returns one message per mismatching bucket; an empty
+     * list means the rollups are consistent.
+     */
+    @Transactional(readOnly = true)
+    public List<String> checkConsistency(Long userId) {
+        Map<String, Object[]> expected = new HashMap<>();
+        for (Object[] row : expenseRepository.getDailyCategoryTotals(userId)) {
+            expected.put(row[0] + "/" + row[1], new Object[]{row[2], ((Number) row[3]).longValue()});
+        }
+        
+        List<String> mismatches = new ArrayList<>();
+        for (ExpenseDailyRollup rollup : rollupRepository.findByUserId(userId)) {
+            String key = rollup.getExpenseDate() + "/" + rollup.getCategoryId();
+            Object[] bucket = expected.remove(key);
+            if (bucket == null) {
+                mismatches.add("Unexpected rollup bucket " + key + " for user " + userId);
+            } else if (((BigDecimal) bucket[0]).compareTo(rollup.getTotalAmount()) != 0
+                    || (long) bucket[1] != rollup.getTransactionCount()) {
+                mismatches.add("Rollup bucket " + key + " for user " + userId + " has " + rollup.getTotalAmount()
+                        + "/" + rollup.getTransactionCount() + ", expected " + bucket[0] + "/" + bucket[1]);
+            }
+        }
+        for (String key : expected.keySet()) {
+            mismatches.add("Missing rollup bucket " + key + " for user " + userId);
+        }
+        return mismatches;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuildAll();
+        }
+    }
+    
+    @Scheduled(cron = "${rollup.repair.cron:-}")
+    public void scheduledRepair() {
+        rebuildAll();
+    }
+}
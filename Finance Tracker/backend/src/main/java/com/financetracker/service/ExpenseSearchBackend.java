@@ -0,0 +1,35 @@
+package com.financetracker.service;
+
+import java.util.List;
+
+/**
+ * Full-text index over expenses, selected with {@code search.backend}.
+ */
+public interface ExpenseSearchBackend {
+    
+    /**
+     * Ids of one page of matching expenses, best match first. {@code totalExact}
+     * is false when {@code total} is only a lower bound.
+     */
+    record Hits(List<Long> expenseIds, long total, boolean totalExact) {
+    }
+    
+    Hits search(Long userId, ExpenseSearchQuery query, int offset, int limit);
+    
+    /**
+     * Brings the index up to date with a committed expense write.
+     */
+    void apply(ExpenseChangedEvent event);
+    
+    /**
+     * Re-indexes every expense from the expenses table.
+     */
+    void rebuild();
+    
+    /**
+     * Whether the index may be missing committed writes and should be rebuilt at startup.
+     */
+    default boolean needsRebuild() {
+        return false;
+    }
+}
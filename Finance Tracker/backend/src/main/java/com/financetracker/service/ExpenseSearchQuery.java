@@ -0,0 +1,25 @@
+package com.financetracker.service;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Search request: free text matched against description, location and
+ * notes, plus optional filters. A null or blank text matches every expense
+ * that passes the filters.
+ */
+@Value
+public class ExpenseSearchQuery {
+    String text;
+    LocalDate startDate;
+    LocalDate endDate;
+    Long categoryId;
+    BigDecimal minAmount;
+    BigDecimal maxAmount;
+    
+    public boolean hasText() {
+        return text != null && !text.isBlank();
+    }
+}
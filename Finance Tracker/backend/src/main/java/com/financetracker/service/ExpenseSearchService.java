@@ -0,0 +1,100 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.ExpenseDto;
+import com.financetracker.dto.ExpenseSearchResultDto;
+import com.financetracker.security.CurrentUserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Expense search. The configured {@link ExpenseSearchBackend} finds the
+ * matching ids, and the expenses of the page are then loaded by id, so
+ * results always show the current row.
+ */
+@Service
+public class ExpenseSearchService {
+    
+    /**
+     * Deepest result a search may page to. Backends collect every hit up to
+     * the end of the page, so deeper pages cost memory in proportion.
+     */
+    public static final int MAX_SEARCH_DEPTH = 10_000;
+    
+    private static final Logger log = LoggerFactory.getLogger(ExpenseSearchService.class);
+    
+    @Autowired
+    private ExpenseSearchBackend searchBackend;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Value("${search.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+    
+    // Offline rebuild: stop the application once the startup rebuild is done
+    @Value("${search.exit-after-rebuild:false}")
+    private boolean exitAfterRebuild;
+    
+    @Transactional(readOnly = true)
+    public ExpenseSearchResultDto search(ExpenseSearchQuery query, Integer page, Integer size, String fields) {
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        int pageSize = size == null
+                ? ExpenseService.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(size, ExpenseService.MAX_PAGE_SIZE));
+        if ((long) pageNumber * pageSize + pageSize > MAX_SEARCH_DEPTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Search results are limited to the first " + MAX_SEARCH_DEPTH + "; narrow the query");
+        }
+        
+        ExpenseSearchBackend.Hits hits = searchBackend.search(
+                currentUserService.getCurrentUserId(), query, pageNumber * pageSize, pageSize);
+        List<ExpenseDto> items = expenseService.getExpensesByIds(hits.expenseIds(), fields);
+        return new ExpenseSearchResultDto(items, hits.total(), hits.totalExact(), pageNumber, pageSize);
+    }
+    
+    /**
+     * Keeps the index current. A failure is logged rather than thrown because
+     * the write has already committed; a rebuild restores the index.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        try {
+            searchBackend.apply(event);
+        } catch (RuntimeException e) {
+            log.error("Search index update failed for expenses {} of user {}", event.getExpenseIds(), event.getUserId(), e);
+        }
+    }
+    
+    public void rebuild() {
+        searchBackend.rebuild();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup(ApplicationReadyEvent event) {
+        if (rebuildOnStartup) {
+            rebuild();
+            if (exitAfterRebuild) {
+                System.exit(SpringApplication.exit(event.getApplicationContext()));
+            }
+        } else if (searchBackend.needsRebuild()) {
+            log.warn("Search index is empty or was not closed cleanly; rebuilding it");
+            rebuild();
+        }
+    }
+}
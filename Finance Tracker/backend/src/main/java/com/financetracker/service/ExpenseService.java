@@ -1,48 +1,77 @@
 package com.financetracker.service;
 
+import com.financetracker.dto.CategoryDto;
 import com.financetracker.dto.ExpenseDto;
+import com.financetracker.dto.ExpensePageDto;
 import com.financetracker.dto.ExpenseRequest;
 import com.financetracker.entity.Expense;
 import com.financetracker.entity.ExpenseCategory;
 import com.financetracker.entity.User;
 import com.financetracker.repository.ExpenseCategoryRepository;
 import com.financetracker.repository.ExpenseRepository;
-import com.financetracker.repository.UserRepository;
+import com.financetracker.security.CurrentUserService;
 import com.financetracker.util.EncryptionUtil;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class ExpenseService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    
+    /**
+     * ExpenseDto fields that listings return only when asked for via fields=.
+     */
+    public static final Set<String> OPTIONAL_FIELDS = Set.of("paymentMethod", "location", "notes");
+    
     @Autowired
     private ExpenseRepository expenseRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserService currentUserService;
     
     @Autowired
     private ExpenseCategoryRepository categoryRepository;
     
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+    
     @Autowired
     private EncryptionUtil encryptionUtil;
     
-    private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    @Autowired
+    private ExpenseRollupService rollupService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private AnomalyDetector anomalyDetector;
+    
+    @Autowired
+    private RecurringExpenseDetector recurringExpenseDetector;
     
     @Transactional
     public ExpenseDto createExpense(ExpenseRequest request) {
-        User user = getCurrentUser();
-        ExpenseCategory category = categoryRepository.findById(request.getCategoryId())
-                .orElseThrow(() -> new RuntimeException("Category not found"));
+        User user = currentUserService.getCurrentUser();
+        categoryRegistry.require(request.getCategoryId());
+        ExpenseCategory category = categoryRepository.getReferenceById(request.getCategoryId());
         
         Expense expense = new Expense();
         expense.setUser(user);
@@ -58,14 +87,23 @@ public class ExpenseService {
         
         expense.setLocation(request.getLocation());
         expense.setNotes(request.getNotes());
+        applyAnomaly(expense, anomalyDetector.assess(user.getId(), category.getId(),
+                request.getExpenseDate(), request.getAmount()));
         
         expense = expenseRepository.save(expense);
+        recurringExpenseDetector.trackInserts(List.of(expense.getId()));
+        rollupService.recordExpense(expense);
+        anomalyDetector.record(user.getId(), List.of(toSample(expense)), List.of());
+        eventPublisher.publishEvent(new ExpenseChangedEvent(user.getId(), ExpenseChangedEvent.Type.CREATED,
+                List.of(expense.getId()),
+                List.of(new ExpenseChangedEvent.CategoryDay(category.getId(), expense.getExpenseDate(),
+                        expense.getAmount())), List.of()));
         return convertToDto(expense);
     }
     
     @Transactional
     public ExpenseDto updateExpense(Long id, ExpenseRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserService.getCurrentUser();
         Expense expense = expenseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
         
@@ -73,8 +111,14 @@ public class ExpenseService {
             throw new RuntimeException("Unauthorized to update this expense");
         }
         
-        ExpenseCategory category = categoryRepository.findById(request.getCategoryId())
-                .orElseThrow(() -> new RuntimeException("Category not found"));
+        categoryRegistry.require(request.getCategoryId());
+        ExpenseCategory category = categoryRepository.getReferenceById(request.getCategoryId());
+        
+        LocalDate previousDate = expense.getExpenseDate();
+        Long previousCategoryId = expense.getCategory().getId();
+        BigDecimal previousAmount = expense.getAmount();
+        ExpenseChangedEvent.PreviousText previousText = new ExpenseChangedEvent.PreviousText(previousCategoryId,
+                expense.getDescription(), expense.getLocation());
         
         expense.setCategory(category);
         expense.setAmount(request.getAmount());
@@ -89,13 +133,35 @@ public class ExpenseService {
         expense.setLocation(request.getLocation());
         expense.setNotes(request.getNotes());
         
+        // Move the expense between rollup buckets and statistics only when its bucket or amount changed
+        boolean moved = !previousDate.equals(expense.getExpenseDate())
+                || !previousCategoryId.equals(category.getId())
+                || previousAmount.compareTo(expense.getAmount()) != 0;
+        if (moved) {
+            applyAnomaly(expense, anomalyDetector.assess(user.getId(), category.getId(),
+                    expense.getExpenseDate(), expense.getAmount()));
+        }
+        
         expense = expenseRepository.save(expense);
+        
+        if (moved) {
+            rollupService.removeExpense(user.getId(), previousDate, previousCategoryId, previousAmount);
+            rollupService.recordExpense(expense);
+            anomalyDetector.record(user.getId(), List.of(toSample(expense)),
+                    List.of(new AnomalyDetector.Sample(previousCategoryId, previousDate, previousAmount)));
+        }
+        eventPublisher.publishEvent(new ExpenseChangedEvent(user.getId(), ExpenseChangedEvent.Type.UPDATED,
+                List.of(expense.getId()),
+                List.of(new ExpenseChangedEvent.CategoryDay(previousCategoryId, previousDate, previousAmount.negate()),
+                        new ExpenseChangedEvent.CategoryDay(category.getId(), expense.getExpenseDate(),
+                                expense.getAmount())),
+                List.of(previousText)));
         return convertToDto(expense);
     }
     
     @Transactional
     public void deleteExpense(Long id) {
-        User user = getCurrentUser();
+        User user = currentUserService.getCurrentUser();
         Expense expense = expenseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
         
@@ -104,18 +170,144 @@ public class ExpenseService {
         }
         
         expenseRepository.delete(expense);
+        rollupService.removeExpense(user.getId(), expense.getExpenseDate(),
+                expense.getCategory().getId(), expense.getAmount());
+        anomalyDetector.record(user.getId(), List.of(), List.of(toSample(expense)));
+        eventPublisher.publishEvent(new ExpenseChangedEvent(user.getId(), ExpenseChangedEvent.Type.DELETED,
+                List.of(expense.getId()),
+                List.of(new ExpenseChangedEvent.CategoryDay(expense.getCategory().getId(), expense.getExpenseDate(),
+                        expense.getAmount().negate())),
+                List.of(new ExpenseChangedEvent.PreviousText(expense.getCategory().getId(),
+                        expense.getDescription(), expense.getLocation()))));
     }
     
     public List<ExpenseDto> getAllExpenses() {
-        User user = getCurrentUser();
-        return expenseRepository.findByUserOrderByExpenseDateDesc(user)
+        return getAllExpenses(null);
+    }
+    
+    /**
+     * List all expenses, returning only the optional fields named in
+     * {@code fields} (null means all fields). Only the requested columns are
+     * read, and payment methods are decrypted only when requested.
+     */
+    public List<ExpenseDto> getAllExpenses(String fields) {
+        User user = currentUserService.getCurrentUser();
+        Set<String> included = parseFields(fields);
+        if (included.isEmpty()) {
+            List<ExpenseDto> summaries = expenseRepository.findSummariesByUser(user);
+            summaries.forEach(this::applyCategory);
+            return summaries;
+        }
+        List<ExpenseDto> details = expenseRepository.findDetailsByUser(user, included.contains("paymentMethod"),
+                included.contains("location"), included.contains("notes"));
+        details.forEach(this::completeDetail);
+        return details;
+    }
+    
+    /**
+     * Keyset-paginated listing ordered by expense date and id, newest first.
+     * The cursor is the opaque token returned as nextCursor by the previous
+     * page; filters must stay the same while paging.
+     */
+    public ExpensePageDto getExpensePage(String cursor, Integer limit, LocalDate startDate,
+                                         LocalDate endDate, Long categoryId, String fields) {
+        User user = currentUserService.getCurrentUser();
+        Set<String> included = parseFields(fields);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        
+        LocalDate from = startDate != null ? startDate : LocalDate.of(1900, 1, 1);
+        LocalDate cursorDate = endDate != null ? endDate : LocalDate.of(9999, 12, 31);
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            long[] position = decodeCursor(cursor);
+            cursorDate = LocalDate.ofEpochDay(position[0]);
+            cursorId = position[1];
+        }
+        
+        // Fetch one extra row to know whether another page exists
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        List<ExpenseDto> items;
+        if (included.isEmpty()) {
+            items = categoryId == null
+                    ? expenseRepository.findSummaryPage(user, from, cursorDate, cursorId, pageRequest)
+                    : expenseRepository.findSummaryPageByCategory(user, from, categoryId, cursorDate, cursorId, pageRequest);
+            items.forEach(this::applyCategory);
+        } else {
+            boolean withPaymentMethod = included.contains("paymentMethod");
+            boolean withLocation = included.contains("location");
+            boolean withNotes = included.contains("notes");
+            items = categoryId == null
+                    ? expenseRepository.findDetailPage(user, from, cursorDate, cursorId,
+                            withPaymentMethod, withLocation, withNotes, pageRequest)
+                    : expenseRepository.findDetailPageByCategory(user, from, categoryId, cursorDate, cursorId,
+                            withPaymentMethod, withLocation, withNotes, pageRequest);
+            items.forEach(this::completeDetail);
+        }
+        
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            ExpenseDto last = items.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getExpenseDate(), last.getId());
+        }
+        return new ExpensePageDto(items, nextCursor);
+    }
+    
+    /**
+     * Expenses of the current user with the given ids, in the order of
+     * {@code ids}; ids of other users or of deleted expenses are skipped.
+     */
+    public List<ExpenseDto> getExpensesByIds(List<Long> ids, String fields) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<String> included = parseFields(fields);
+        Map<Long, Expense> expenses = expenseRepository.findByUserIdAndIdIn(currentUserService.getCurrentUserId(), ids)
                 .stream()
-                .map(this::convertToDto)
+                .collect(Collectors.toMap(Expense::getId, expense -> expense));
+        return ids.stream()
+                .map(expenses::get)
+                .filter(Objects::nonNull)
+                .map(expense -> convertToDto(expense, included))
                 .collect(Collectors.toList());
     }
     
+    /**
+     * The largest expenses of the current user in a date range, as slim
+     * summaries without the optional fields.
+     */
+    public List<ExpenseDto> getLargestExpenses(LocalDate startDate, LocalDate endDate, int limit) {
+        List<ExpenseDto> largest = expenseRepository.findLargestSummaries(
+                currentUserService.getCurrentUserId(), startDate, endDate, PageRequest.of(0, limit));
+        largest.forEach(this::applyCategory);
+        return largest;
+    }
+    
+    /**
+     * Expenses of the current user flagged as anomalous in a date range,
+     * newest first, as slim summaries without the optional fields.
+     */
+    public List<ExpenseDto> getAnomalies(LocalDate startDate, LocalDate endDate, int limit) {
+        List<ExpenseDto> anomalies = expenseRepository.findAnomalySummaries(
+                currentUserService.getCurrentUserId(), startDate, endDate, PageRequest.of(0, limit));
+        anomalies.forEach(this::applyCategory);
+        return anomalies;
+    }
+    
+    /**
+     * Fails like {@link #getExpenseById} when the expense does not exist or
+     * belongs to another user, reading only its owner's id.
+     */
+    public void checkAccess(Long id) {
+        Long ownerId = expenseRepository.findUserIdById(id)
+                .orElseThrow(() -> new RuntimeException("Expense not found"));
+        if (!ownerId.equals(currentUserService.getCurrentUserId())) {
+            throw new RuntimeException("Unauthorized to access this expense");
+        }
+    }
+    
     public ExpenseDto getExpenseById(Long id) {
-        User user = getCurrentUser();
+        User user = currentUserService.getCurrentUser();
         Expense expense = expenseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
         
@@ -126,28 +318,103 @@ public class ExpenseService {
         return convertToDto(expense);
     }
     
-    private ExpenseDto convertToDto(Expense expense) {
+    private String encodeCursor(LocalDate expenseDate, Long id) {
+        String position = expenseDate.toEpochDay() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private long[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(':');
+            return new long[]{
+                    Long.parseLong(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1))
+            };
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+    
+    private void applyAnomaly(Expense expense, AnomalyDetector.Assessment assessment) {
+        expense.setAnomalyScore(assessment.score());
+        expense.setAnomalyReasons(assessment.reasons());
+    }
+    
+    private AnomalyDetector.Sample toSample(Expense expense) {
+        return new AnomalyDetector.Sample(expense.getCategory().getId(), expense.getExpenseDate(), expense.getAmount());
+    }
+    
+    /**
+     * Canonical form of a {@code fields} parameter, so representations with
+     * different optional fields never share an ETag.
+     */
+    public String fieldsVariant(String fields) {
+        return parseFields(fields).stream().sorted().collect(Collectors.joining("+", "fields-", ""));
+    }
+    
+    private Set<String> parseFields(String fields) {
+        if (fields == null) {
+            return OPTIONAL_FIELDS;
+        }
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(OPTIONAL_FIELDS::contains)
+                .collect(Collectors.toSet());
+    }
+    
+    // Category names and icons come from the registry, never from the expense row
+    private void applyCategory(ExpenseDto dto) {
+        CategoryDto category = categoryRegistry.get(dto.getCategoryId());
+        if (category != null) {
+            dto.setCategoryName(category.getName());
+            dto.setCategoryIcon(category.getIcon());
+        }
+    }
+    
+    private void completeDetail(ExpenseDto dto) {
+        applyCategory(dto);
+        dto.setPaymentMethod(decryptPaymentMethod(dto.getPaymentMethod()));
+    }
+    
+    private String decryptPaymentMethod(String paymentMethod) {
+        if (paymentMethod == null || paymentMethod.isEmpty()) {
+            return null;
+        }
+        try {
+            return encryptionUtil.decryptPaymentMethod(paymentMethod);
+        } catch (Exception e) {
+            return paymentMethod; // Fallback if decryption fails
+        }
+    }
+    
+    ExpenseDto convertToDto(Expense expense) {
+        return convertToDto(expense, OPTIONAL_FIELDS);
+    }
+    
+    private ExpenseDto convertToDto(Expense expense, Set<String> included) {
         ExpenseDto dto = new ExpenseDto();
         dto.setId(expense.getId());
         dto.setCategoryId(expense.getCategory().getId());
-        dto.setCategoryName(expense.getCategory().getName());
-        dto.setCategoryIcon(expense.getCategory().getIcon());
+        applyCategory(dto);
         dto.setAmount(expense.getAmount());
         dto.setDescription(expense.getDescription());
         dto.setExpenseDate(expense.getExpenseDate());
         
         // Decrypt payment method for display
-        if (expense.getPaymentMethod() != null && !expense.getPaymentMethod().isEmpty()) {
-            try {
-                dto.setPaymentMethod(encryptionUtil.decryptPaymentMethod(expense.getPaymentMethod()));
-            } catch (Exception e) {
-                dto.setPaymentMethod(expense.getPaymentMethod()); // Fallback if decryption fails
-            }
+        if (included.contains("paymentMethod")) {
+            dto.setPaymentMethod(decryptPaymentMethod(expense.getPaymentMethod()));
         }
         
-        dto.setLocation(expense.getLocation());
-        dto.setNotes(expense.getNotes());
+        if (included.contains("location")) {
+            dto.setLocation(expense.getLocation());
+        }
+        if (included.contains("notes")) {
+            dto.setNotes(expense.getNotes());
+        }
         dto.setCreatedAt(expense.getCreatedAt().toLocalDate());
+        dto.setAnomalyScore(expense.getAnomalyScore());
+        dto.setAnomalyReasons(ExpenseDto.toReasonList(expense.getAnomalyReasons()));
         return dto;
     }
 }
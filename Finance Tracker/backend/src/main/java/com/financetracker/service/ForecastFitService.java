@@ -0,0 +1,226 @@
+package com.financetracker.service;
+
+import com.financetracker.entity.ForecastModel;
+import com.financetracker.repository.ForecastModelRepository;
+import com.financetracker.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Fits and stores the per-category {@link HoltWintersModel}s of each user
+ * from the daily series over the last {@code forecast.history-days} complete
+ * days. The nightly batch fits users in parallel on a bounded fork-join
+ * pool, one read and one write transaction per user. A user the nightly
+ * batch has not seen yet is fitted once in the background on request. Fits
+ * of one user never overlap, so their delete and insert cannot collide.
+ */
+@Service
+public class ForecastFitService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ForecastFitService.class);
+    
+    @Autowired
+    private ForecastModelRepository forecastModelRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${forecast.history-days:365}")
+    private int historyDays;
+    
+    @Value("${forecast.fit.parallelism:4}")
+    private int parallelism;
+    
+    @Value("${forecast.fit.queue-capacity:1000}")
+    private int queueCapacity;
+    
+    private TransactionTemplate readTransaction;
+    private TransactionTemplate writeTransaction;
+    private ThreadPoolExecutor requestedFits;
+    private final Map<Long, ReentrantLock> userLocks = new ConcurrentHashMap<>();
+    // Users fitted, or queued for a fit, since the last nightly batch started
+    private volatile Set<Long> fitted = ConcurrentHashMap.newKeySet();
+    
+    @PostConstruct
+    void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        requestedFits = new ThreadPoolExecutor(
+                1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "forecast-fit");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        requestedFits.allowCoreThreadTimeOut(true);
+    }
+    
+    @PreDestroy
+    void stop() {
+        requestedFits.shutdownNow();
+    }
+    
+    /**
+     * Refit every user; returns the number of models stored.
+     */
+    public int fitAll() {
+        long started = System.nanoTime();
+        List<Long> userIds = userRepository.findAllIds();
+        Set<Long> batch = ConcurrentHashMap.newKeySet();
+        batch.addAll(userIds);
+        fitted = batch;
+        List<Callable<Integer>> tasks = userIds.stream()
+                .map(userId -> (Callable<Integer>) () -> fitUser(userId))
+                .collect(Collectors.toList());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        int models = 0;
+        int failed = 0;
+        try {
+            List<Future<Integer>> results = pool.invokeAll(tasks);
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    models += results.get(i).get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("Forecast fit failed for user {}", userIds.get(i), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while fitting forecasts");
+        } finally {
+            pool.shutdown();
+        }
+        log.info("Fitted {} forecast models for {} users ({} failed) in {} ms",
+                models, userIds.size(), failed, (System.nanoTime() - started) / 1_000_000);
+        return models;
+    }
+    
+    /**
+     * Queue a background fit of a user the nightly batch has not fitted yet,
+     * running {@code onFitted} once models are stored. Returns false when
+     * the user was already fitted or queued since the batch started.
+     */
+    public boolean requestFit(Long userId, Runnable onFitted) {
+        Set<Long> current = fitted;
+        if (!current.add(userId)) {
+            return false;
+        }
+        try {
+            requestedFits.execute(() -> {
+                try {
+                    if (fitUser(userId) > 0) {
+                        onFitted.run();
+                    }
+                } catch (RuntimeException e) {
+                    current.remove(userId);
+                    log.error("Forecast fit failed for user {}", userId, e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            current.remove(userId);
+            return false;
+        }
+    }
+    
+    /**
+     * Refit one user's models through yesterday and replace the stored ones.
+     */
+    public int fitUser(Long userId) {
+        ReentrantLock lock = userLocks.computeIfAbsent(userId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            return fit(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private int fit(Long userId) {
+        LocalDate end = LocalDate.now().minusDays(1);
+        LocalDate start = end.minusDays(historyDays - 1);
+        int days = historyDays;
+        List<Object[]> rows = readTransaction.execute(status ->
+                timeSeriesService.loadRows(userId, false, start, end, null));
+        
+        Map<Long, double[]> series = new HashMap<>();
+        for (Object[] row : rows) {
+            int day = (int) ChronoUnit.DAYS.between(start, (LocalDate) row[0]);
+            Long categoryId = ((Number) row[1]).longValue();
+            series.computeIfAbsent(categoryId, id -> new double[days])[day] += ((Number) row[2]).doubleValue();
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<ForecastModel> models = new ArrayList<>(series.size());
+        series.forEach((categoryId, values) -> {
+            // The series starts at the category's first spend in the window
+            int first = 0;
+            while (first < values.length - 1 && values[first] == 0) {
+                first++;
+            }
+            HoltWintersModel model = HoltWintersModel.fit(start.plusDays(first),
+                    Arrays.copyOfRange(values, first, values.length));
+            models.add(toEntity(userId, categoryId, model, now));
+        });
+        
+        writeTransaction.executeWithoutResult(status -> {
+            forecastModelRepository.deleteByUserId(userId);
+            forecastModelRepository.saveAll(models);
+        });
+        return models.size();
+    }
+    
+    static HoltWintersModel toModel(ForecastModel entity) {
+        double[] seasonal = Arrays.stream(entity.getSeasonal().split(","))
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+        return new HoltWintersModel(entity.getAlpha(), entity.getBeta(), entity.getGamma(), entity.getLevel(),
+                entity.getTrend(), seasonal, entity.getResidualStdDev(), entity.getFittedThrough());
+    }
+    
+    private static ForecastModel toEntity(Long userId, Long categoryId, HoltWintersModel model, LocalDateTime now) {
+        String seasonal = Arrays.stream(model.getSeasonal())
+                .mapToObj(value -> Double.toString(Math.round(value * 10_000) / 10_000.0))
+                .collect(Collectors.joining(","));
+        return new ForecastModel(null, userId, categoryId, model.getFittedThrough(), model.getAlpha(),
+                model.getBeta(), model.getGamma(), model.getLevel(), model.getTrend(), seasonal,
+                model.getResidualStdDev(), now);
+    }
+}
@@ -0,0 +1,255 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.CategoryDto;
+import com.financetracker.dto.CategoryForecastDto;
+import com.financetracker.dto.ForecastDto;
+import com.financetracker.entity.ForecastModel;
+import com.financetracker.repository.ForecastModelRepository;
+import com.financetracker.security.CurrentUserService;
+import com.financetracker.util.AmountUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * End-of-month and next-30-days spending forecasts per category, served
+ * from the stored {@link HoltWintersModel}s. A user's models and the daily
+ * actuals since they were fitted are loaded once into memory; after that,
+ * committed expense writes adjust the actuals in place and a request only
+ * rolls each model over the days completed since the fit and sums its
+ * forecasts, without touching the database. Requests never fit: a user
+ * without stored models gets actuals only while a background fit runs.
+ */
+@Service
+public class ForecastService {
+    
+    private static final int NEXT_DAYS = 30;
+    
+    private static final class UserForecast {
+        final Map<Long, HoltWintersModel> models;
+        // Daily totals per category from trackedFrom on: this month so far and every day the models have not seen
+        final LocalDate trackedFrom;
+        final Map<Long, TreeMap<LocalDate, BigDecimal>> actuals;
+        
+        UserForecast(Map<Long, HoltWintersModel> models, LocalDate trackedFrom,
+                     Map<Long, TreeMap<LocalDate, BigDecimal>> actuals) {
+            this.models = models;
+            this.trackedFrom = trackedFrom;
+            this.actuals = actuals;
+        }
+    }
+    
+    @Autowired
+    private ForecastModelRepository forecastModelRepository;
+    
+    @Autowired
+    private ForecastFitService forecastFitService;
+    
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+    
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${forecast.cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${forecast.cache.ttl-seconds:86400}")
+    private long ttlSeconds;
+    
+    private Cache<Long, UserForecast> cache;
+    private final CacheGenerations<Long> generations = new CacheGenerations<>();
+    private TransactionTemplate readTransaction;
+    
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "forecast");
+        
+        // Writes are applied after commit, so reads get their own transaction
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+    }
+    
+    public ForecastDto getForecast() {
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = today.withDayOfMonth(1);
+        LocalDate monthEnd = today.withDayOfMonth(today.lengthOfMonth());
+        UserForecast forecast = load(currentUserService.getCurrentUserId(), today);
+        
+        List<CategoryForecastDto> categories = new ArrayList<>();
+        synchronized (forecast) {
+            Set<Long> categoryIds = new LinkedHashSet<>(forecast.models.keySet());
+            categoryIds.addAll(forecast.actuals.keySet());
+            for (Long categoryId : categoryIds) {
+                NavigableMap<LocalDate, BigDecimal> days = forecast.actuals.getOrDefault(categoryId, new TreeMap<>());
+                BigDecimal monthToDate = days.subMap(monthStart, true, today, true).values().stream()
+                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+                HoltWintersModel model = forecast.models.get(categoryId);
+                if (model == null && monthToDate.signum() == 0) {
+                    continue;
+                }
+                
+                double restOfMonth = 0;
+                double next30Days = 0;
+                if (model != null) {
+                    // Days completed since the fit become observations
+                    while (model.getFittedThrough().isBefore(today.minusDays(1))) {
+                        LocalDate day = model.getFittedThrough().plusDays(1);
+                        model.update(days.getOrDefault(day, BigDecimal.ZERO).doubleValue());
+                    }
+                    // Today is under way: expect only what its forecast exceeds the spend so far
+                    double todaySoFar = days.getOrDefault(today, BigDecimal.ZERO).doubleValue();
+                    restOfMonth = Math.max(0, expected(model, today) - todaySoFar);
+                    for (LocalDate day = today.plusDays(1); !day.isAfter(today.plusDays(NEXT_DAYS)); day = day.plusDays(1)) {
+                        double value = expected(model, day);
+                        if (!day.isAfter(monthEnd)) {
+                            restOfMonth += value;
+                        }
+                        next30Days += value;
+                    }
+                }
+                
+                CategoryForecastDto dto = new CategoryForecastDto();
+                dto.setCategoryId(categoryId);
+                CategoryDto category = categoryRegistry.get(categoryId);
+                if (category != null) {
+                    dto.setCategoryName(category.getName());
+                    dto.setCategoryIcon(category.getIcon());
+                }
+                dto.setMonthToDate(monthToDate);
+                dto.setEndOfMonth(monthToDate.add(money(restOfMonth)));
+                dto.setNext30Days(money(next30Days));
+                dto.setModelFittedThrough(model != null ? model.getFittedThrough() : null);
+                categories.add(dto);
+            }
+        }
+        categories.sort(Comparator.comparing(CategoryForecastDto::getEndOfMonth).reversed());
+        
+        ForecastDto dto = new ForecastDto();
+        dto.setAsOf(today);
+        dto.setMonthEnd(monthEnd);
+        dto.setMonthToDate(sum(categories, CategoryForecastDto::getMonthToDate));
+        dto.setEndOfMonth(sum(categories, CategoryForecastDto::getEndOfMonth));
+        dto.setNext30Days(sum(categories, CategoryForecastDto::getNext30Days));
+        dto.setCategories(categories);
+        return dto;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        Long userId = event.getUserId();
+        generations.bump(userId);
+        UserForecast forecast = cache.getIfPresent(userId);
+        if (forecast == null) {
+            return;
+        }
+        synchronized (forecast) {
+            for (ExpenseChangedEvent.CategoryDay categoryDay : event.getCategoryDays()) {
+                if (categoryDay.getAmountDelta() != null && !categoryDay.getDate().isBefore(forecast.trackedFrom)) {
+                    forecast.actuals.computeIfAbsent(categoryDay.getCategoryId(), id -> new TreeMap<>())
+                            .merge(categoryDay.getDate(), categoryDay.getAmountDelta(), BigDecimal::add);
+                }
+            }
+        }
+    }
+    
+    @Scheduled(cron = "${forecast.fit.cron:0 30 2 * * *}")
+    public void nightlyFit() {
+        forecastFitService.fitAll();
+        generations.bumpAll();
+        cache.invalidateAll();
+    }
+    
+    private UserForecast load(Long userId, LocalDate today) {
+        UserForecast cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        return generations.load(userId, cache, () -> read(userId, today));
+    }
+    
+    private UserForecast read(Long userId, LocalDate today) {
+        List<ForecastModel> stored = readTransaction.execute(status -> forecastModelRepository.findByUserId(userId));
+        if (stored.isEmpty()) {
+            // First forecast before the nightly fit has seen this user; reload once the models are stored
+            forecastFitService.requestFit(userId, () -> {
+                generations.bump(userId);
+                cache.invalidate(userId);
+            });
+        }
+        Map<Long, HoltWintersModel> models = new HashMap<>();
+        LocalDate trackedFrom = today.withDayOfMonth(1);
+        for (ForecastModel entity : stored) {
+            HoltWintersModel model = ForecastFitService.toModel(entity);
+            models.put(entity.getCategoryId(), model);
+            if (model.getFittedThrough().plusDays(1).isBefore(trackedFrom)) {
+                trackedFrom = model.getFittedThrough().plusDays(1);
+            }
+        }
+        
+        LocalDate from = trackedFrom;
+        List<Object[]> rows = readTransaction.execute(status ->
+                timeSeriesService.loadRows(userId, false, from, today, null));
+        Map<Long, TreeMap<LocalDate, BigDecimal>> actuals = new HashMap<>();
+        for (Object[] row : rows) {
+            actuals.computeIfAbsent(((Number) row[1]).longValue(), id -> new TreeMap<>())
+                    .merge((LocalDate) row[0], AmountUtil.toBigDecimal(row[2]), BigDecimal::add);
+        }
+        
+        return new UserForecast(models, trackedFrom, actuals);
+    }
+    
+    private static double expected(HoltWintersModel model, LocalDate day) {
+        return day.isAfter(model.getFittedThrough()) ? model.forecast(day) : 0;
+    }
+    
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    private static BigDecimal sum(List<CategoryForecastDto> categories,
+                                  Function<CategoryForecastDto, BigDecimal> field) {
+        return categories.stream().map(field).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,162 @@
+package com.financetracker.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Additive Holt-Winters model of a daily spending series with a damped
+ * trend and a weekly season. The season is indexed by day of week, so a
+ * forecast needs only the date. Fitting picks the smoothing parameters
+ * with the lowest one-step-ahead squared error on a small grid; after
+ * that, every new day is a constant-time update. Not thread-safe.
+ */
+public class HoltWintersModel {
+    
+    public static final int SEASON = 7;
+    
+    // Keeps a trend fitted on a short spike from running away over a month-long horizon
+    static final double DAMPING = 0.98;
+    
+    private static final double[] ALPHAS = {0.02, 0.05, 0.1, 0.2, 0.3, 0.5};
+    private static final double[] BETAS = {0, 0.02, 0.05};
+    private static final double[] GAMMAS = {0.02, 0.05, 0.1, 0.2};
+    
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private double level;
+    private double trend;
+    private final double[] seasonal;
+    private double residualStdDev;
+    private LocalDate fittedThrough;
+    
+    public HoltWintersModel(double alpha, double beta, double gamma, double level, double trend,
+                            double[] seasonal, double residualStdDev, LocalDate fittedThrough) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.level = level;
+        this.trend = trend;
+        this.seasonal = seasonal.clone();
+        this.residualStdDev = residualStdDev;
+        this.fittedThrough = fittedThrough;
+    }
+    
+    /**
+     * Fit on daily values starting at {@code start}; at least one value is
+     * required. Series shorter than two seasons get a level-only model.
+     */
+    public static HoltWintersModel fit(LocalDate start, double[] values) {
+        LocalDate end = start.plusDays(values.length - 1);
+        boolean seasonal = values.length >= 2 * SEASON;
+        double[] betas = seasonal ? BETAS : new double[]{0};
+        double[] gammas = seasonal ? GAMMAS : new double[]{0};
+        
+        HoltWintersModel best = null;
+        double bestError = Double.POSITIVE_INFINITY;
+        for (double alpha : ALPHAS) {
+            for (double beta : betas) {
+                for (double gamma : gammas) {
+                    HoltWintersModel model = initial(start, values, seasonal, alpha, beta, gamma);
+                    double error = 0;
+                    int steps = 0;
+                    for (int i = seasonal ? SEASON : 1; i < values.length; i++) {
+                        double residual = values[i] - model.predictNext();
+                        error += residual * residual;
+                        steps++;
+                        model.update(values[i]);
+                    }
+                    if (error < bestError || best == null) {
+                        bestError = error;
+                        model.residualStdDev = steps > 0 ? Math.sqrt(error / steps) : 0;
+                        best = model;
+                    }
+                }
+            }
+        }
+        best.fittedThrough = end;
+        return best;
+    }
+    
+    // Level from the first week (or the first day), trend from the first two weeks, season from the first week
+    private static HoltWintersModel initial(LocalDate start, double[] values, boolean seasonal,
+                                            double alpha, double beta, double gamma) {
+        double[] season = new double[SEASON];
+        if (!seasonal) {
+            return new HoltWintersModel(alpha, 0, 0, values[0], 0, season, 0, start);
+        }
+        double firstWeek = Arrays.stream(values, 0, SEASON).average().orElse(0);
+        double secondWeek = Arrays.stream(values, SEASON, 2 * SEASON).average().orElse(0);
+        for (int i = 0; i < SEASON; i++) {
+            season[index(start.plusDays(i))] = values[i] - firstWeek;
+        }
+        return new HoltWintersModel(alpha, beta, gamma, firstWeek, (secondWeek - firstWeek) / SEASON,
+                season, 0, start.plusDays(SEASON - 1));
+    }
+    
+    /**
+     * Advance the model by the day after {@link #getFittedThrough()}.
+     */
+    public void update(double value) {
+        LocalDate day = fittedThrough.plusDays(1);
+        int i = index(day);
+        double previousLevel = level;
+        level = alpha * (value - seasonal[i]) + (1 - alpha) * (level + DAMPING * trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * DAMPING * trend;
+        seasonal[i] = gamma * (value - level) + (1 - gamma) * seasonal[i];
+        fittedThrough = day;
+    }
+    
+    /**
+     * Expected spend on a day after {@link #getFittedThrough()}, never negative.
+     */
+    public double forecast(LocalDate day) {
+        long horizon = day.toEpochDay() - fittedThrough.toEpochDay();
+        if (horizon < 1) {
+            throw new IllegalArgumentException("Forecast day " + day + " is not after " + fittedThrough);
+        }
+        // Sum of DAMPING^1..DAMPING^horizon
+        double damped = DAMPING * (1 - Math.pow(DAMPING, horizon)) / (1 - DAMPING);
+        return Math.max(0, level + damped * trend + seasonal[index(day)]);
+    }
+    
+    private double predictNext() {
+        return level + DAMPING * trend + seasonal[index(fittedThrough.plusDays(1))];
+    }
+    
+    private static int index(LocalDate day) {
+        return day.getDayOfWeek().getValue() - 1;
+    }
+    
+    public double getAlpha() {
+        return alpha;
+    }
+    
+    public double getBeta() {
+        return beta;
+    }
+    
+    public double getGamma() {
+        return gamma;
+    }
+    
+    public double getLevel() {
+        return level;
+    }
+    
+    public double getTrend() {
+        return trend;
+    }
+    
+    public double[] getSeasonal() {
+        return seasonal.clone();
+    }
+    
+    public double getResidualStdDev() {
+        return residualStdDev;
+    }
+    
+    public LocalDate getFittedThrough() {
+        return fittedThrough;
+    }
+}
@@ -0,0 +1,31 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.BudgetAlertDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps delivered alerts in memory, for tests and local development.
+ */
+@Component
+@ConditionalOnProperty(name = "budget.alerts.sink", havingValue = "memory")
+public class InMemoryBudgetAlertSink implements BudgetAlertSink {
+    
+    private final List<BudgetAlertDto> alerts = new ArrayList<>();
+    
+    @Override
+    public synchronized void deliver(List<BudgetAlertDto> delivered) {
+        alerts.addAll(delivered);
+    }
+    
+    public synchronized List<BudgetAlertDto> getAlerts() {
+        return new ArrayList<>(alerts);
+    }
+    
+    public synchronized void clear() {
+        alerts.clear();
+    }
+}
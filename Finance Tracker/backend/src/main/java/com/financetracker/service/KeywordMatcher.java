@@ -0,0 +1,135 @@
+package com.financetracker.service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over a user's rule patterns. A text is scanned
+ * once, whatever the number of rules, and the longest matching pattern
+ * wins; among equally long patterns the earliest rule wins. Matching is
+ * case-insensitive. Instances are immutable after construction.
+ */
+public class KeywordMatcher {
+    
+    public record Rule(String pattern, Long categoryId) {
+    }
+    
+    public record Match(String pattern, Long categoryId) {
+    }
+    
+    private static final class Node {
+        final Map<Character, Node> next = new HashMap<>();
+        Node fail;
+        // Best rule ending here, including the ones reached through fail links
+        int best = -1;
+    }
+    
+    private static final KeywordMatcher EMPTY = new KeywordMatcher(List.of());
+    
+    private final List<Rule> rules;
+    private final Node root = new Node();
+    
+    public KeywordMatcher(List<Rule> rules) {
+        this.rules = List.copyOf(rules);
+        for (int i = 0; i < this.rules.size(); i++) {
+            String pattern = this.rules.get(i).pattern();
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            Node node = root;
+            for (int c = 0; c < pattern.length(); c++) {
+                node = node.next.computeIfAbsent(pattern.charAt(c), key -> new Node());
+            }
+            node.best = better(node.best, i);
+        }
+        linkFailures();
+    }
+    
+    public static KeywordMatcher empty() {
+        return EMPTY;
+    }
+    
+    public static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            normalized.append(Character.toLowerCase(text.charAt(i)));
+        }
+        return normalized.toString().trim();
+    }
+    
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+    
+    /**
+     * Best rule found in any of the texts (null texts are skipped), or null.
+     */
+    public Match match(String... texts) {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        int best = -1;
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            Node node = root;
+            for (int i = 0; i < text.length(); i++) {
+                char c = Character.toLowerCase(text.charAt(i));
+                while (node != root && !node.next.containsKey(c)) {
+                    node = node.fail;
+                }
+                node = node.next.getOrDefault(c, root);
+                best = better(best, node.best);
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        Rule rule = rules.get(best);
+        return new Match(rule.pattern(), rule.categoryId());
+    }
+    
+    private void linkFailures() {
+        Queue<Node> queue = new ArrayDeque<>();
+        root.fail = root;
+        for (Node child : root.next.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.remove();
+            for (Map.Entry<Character, Node> edge : node.next.entrySet()) {
+                Node child = edge.getValue();
+                Node fail = node.fail;
+                while (fail != root && !fail.next.containsKey(edge.getKey())) {
+                    fail = fail.fail;
+                }
+                Node target = fail.next.get(edge.getKey());
+                child.fail = target != null && target != child ? target : root;
+                // Parents are processed first, so the fail target already carries its own best
+                child.best = better(child.best, child.fail.best);
+                queue.add(child);
+            }
+        }
+    }
+    
+    // Longer pattern first, then the earlier rule
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        int lengthA = rules.get(a).pattern().length();
+        int lengthB = rules.get(b).pattern().length();
+        if (lengthA != lengthB) {
+            return lengthA > lengthB ? a : b;
+        }
+        return Math.min(a, b);
+    }
+}
@@ -0,0 +1,25 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.BudgetAlertDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "budget.alerts.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingBudgetAlertSink implements BudgetAlertSink {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoggingBudgetAlertSink.class);
+    
+    @Override
+    public void deliver(List<BudgetAlertDto> alerts) {
+        for (BudgetAlertDto alert : alerts) {
+            log.info("Budget {} of user {} reached {}% in {} period starting {}: spent {} of {}",
+                    alert.getBudgetId(), alert.getUserId(), alert.getThreshold(), alert.getPeriod(),
+                    alert.getPeriodStart(), alert.getSpent(), alert.getLimit());
+        }
+    }
+}
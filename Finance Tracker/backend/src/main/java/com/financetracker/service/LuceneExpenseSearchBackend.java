@@ -0,0 +1,391 @@
+package com.financetracker.service;
+
+import com.financetracker.repository.ExpenseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index, one per deployment, in {@code search.lucene.path}.
+ * Committed writes are applied right away and are searchable after a
+ * near-real-time refresh; the index is flushed to disk every
+ * {@code search.lucene.commit-interval-ms}. The last commit records whether
+ * the index was closed cleanly, so after a crash, or when the index is empty
+ * while expenses exist, {@link #needsRebuild()} asks for a rebuild.
+ * <p>
+ * A rebuild re-indexes in place, so searches keep seeing the old documents
+ * until they are replaced. Every document carries the generation of the
+ * rebuild that wrote it, and documents left from an older generation are
+ * deleted at the end. Writes applied while a rebuild runs win over the rows
+ * it streamed: their ids are skipped when the rebuild reaches them, under
+ * the same per-id lock stripe, so a stale row never overwrites a newer one
+ * and a deletion is never undone.
+ */
+@Component
+@ConditionalOnProperty(name = "search.backend", havingValue = "lucene", matchIfMissing = true)
+public class LuceneExpenseSearchBackend implements ExpenseSearchBackend {
+    
+    private static final Logger log = LoggerFactory.getLogger(LuceneExpenseSearchBackend.class);
+    
+    private static final String ID = "id";
+    private static final String USER_ID = "userId";
+    private static final String CATEGORY_ID = "categoryId";
+    private static final String DATE = "date";
+    private static final String AMOUNT = "amount";
+    private static final String TEXT = "text";
+    private static final String GENERATION = "generation";
+    
+    // Commit user data: "open" until the writer is closed cleanly
+    private static final String STATE = "state";
+    private static final String STATE_OPEN = "open";
+    private static final String STATE_CLOSED = "closed";
+    
+    private static final int LOCK_STRIPES = 64;
+    
+    private static final Sort BY_RELEVANCE = new Sort(SortField.FIELD_SCORE,
+            new SortField(DATE, SortField.Type.LONG, true), new SortField(ID, SortField.Type.LONG, true));
+    private static final Sort BY_DATE = new Sort(
+            new SortField(DATE, SortField.Type.LONG, true), new SortField(ID, SortField.Type.LONG, true));
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${search.lucene.path:./data/search-index}")
+    private String indexPath;
+    
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private TransactionTemplate readTransaction;
+    private boolean closedCleanly;
+    
+    private final ReentrantLock[] idLocks = new ReentrantLock[LOCK_STRIPES];
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Generation stamped on new documents; written before touchedDuringRebuild is published
+    private volatile long generation;
+    // Ids written by apply() since the running rebuild started; null when no rebuild runs
+    private volatile Set<Long> touchedDuringRebuild;
+    
+    @PostConstruct
+    void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexPath));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        Iterable<Map.Entry<String, String>> lastCommit = writer.getLiveCommitData();
+        if (lastCommit != null) {
+            for (Map.Entry<String, String> entry : lastCommit) {
+                if (STATE.equals(entry.getKey())) {
+                    closedCleanly = STATE_CLOSED.equals(entry.getValue());
+                }
+            }
+        }
+        // Until the next clean close, the index on disk may lag behind the database
+        writer.setLiveCommitData(Map.of(STATE, STATE_OPEN).entrySet());
+        writer.commit();
+        searcherManager = new SearcherManager(writer, null);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            idLocks[i] = new ReentrantLock();
+        }
+        
+        // Events are applied after commit, so rows are read in a fresh transaction
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+    }
+    
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        writer.setLiveCommitData(Map.of(STATE, STATE_CLOSED).entrySet());
+        writer.commit();
+        writer.close();
+        directory.close();
+    }
+    
+    @Override
+    public Hits search(Long userId, ExpenseSearchQuery query, int offset, int limit) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(LongPoint.newExactQuery(USER_ID, userId), BooleanClause.Occur.FILTER);
+        if (query.getStartDate() != null || query.getEndDate() != null) {
+            builder.add(LongPoint.newRangeQuery(DATE,
+                    query.getStartDate() != null ? query.getStartDate().toEpochDay() : Long.MIN_VALUE,
+                    query.getEndDate() != null ? query.getEndDate().toEpochDay() : Long.MAX_VALUE),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (query.getCategoryId() != null) {
+            builder.add(LongPoint.newExactQuery(CATEGORY_ID, query.getCategoryId()), BooleanClause.Occur.FILTER);
+        }
+        if (query.getMinAmount() != null || query.getMaxAmount() != null) {
+            builder.add(LongPoint.newRangeQuery(AMOUNT,
+                    query.getMinAmount() != null ? toCents(query.getMinAmount()) : Long.MIN_VALUE,
+                    query.getMaxAmount() != null ? toCents(query.getMaxAmount()) : Long.MAX_VALUE),
+                    BooleanClause.Occur.FILTER);
+        }
+        
+        List<String> terms = query.hasText() ? analyze(query.getText()) : List.of();
+        for (String term : terms) {
+            builder.add(termQuery(term), BooleanClause.Occur.MUST);
+        }
+        if (terms.isEmpty()) {
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(builder.build(), offset + limit, terms.isEmpty() ? BY_DATE : BY_RELEVANCE);
+                List<Long> ids = new ArrayList<>();
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                    ids.add(Long.parseLong(searcher.storedFields().document(scoreDoc.doc, Set.of(ID)).get(ID)));
+                }
+                return new Hits(ids, topDocs.totalHits.value, topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Search failed", e);
+        }
+    }
+    
+    /**
+     * Exact matches rank above prefix matches, which rank above matches
+     * within one or two typos.
+     */
+    private Query termQuery(String term) {
+        Term exact = new Term(TEXT, term);
+        BooleanQuery.Builder variants = new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(exact), 3f), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new PrefixQuery(exact), 2f), BooleanClause.Occur.SHOULD);
+        if (term.length() >= 4) {
+            variants.add(new FuzzyQuery(exact, term.length() >= 7 ? 2 : 1, 1), BooleanClause.Occur.SHOULD);
+        }
+        return variants.build();
+    }
+    
+    @Override
+    public void apply(ExpenseChangedEvent event) {
+        List<ReentrantLock> locks = lockIds(event.getExpenseIds());
+        try {
+            // Read in this order: a published set implies the new generation
+            Set<Long> touched = touchedDuringRebuild;
+            long documentGeneration = generation;
+            if (touched != null) {
+                touched.addAll(event.getExpenseIds());
+            }
+            if (event.getType() == ExpenseChangedEvent.Type.DELETED) {
+                for (Long id : event.getExpenseIds()) {
+                    writer.deleteDocuments(new Term(ID, id.toString()));
+                }
+            } else {
+                List<Object[]> rows = readTransaction.execute(
+                        status -> expenseRepository.findSearchRowsByIds(event.getExpenseIds()));
+                Set<Long> missing = new HashSet<>(event.getExpenseIds());
+                for (Object[] row : rows) {
+                    Long id = ((Number) row[0]).longValue();
+                    writer.updateDocument(new Term(ID, id.toString()), toDocument(row, documentGeneration));
+                    missing.remove(id);
+                }
+                // Deleted again before this event was applied
+                for (Long id : missing) {
+                    writer.deleteDocuments(new Term(ID, id.toString()));
+                }
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new RuntimeException("Search index update failed", e);
+        } finally {
+            locks.forEach(ReentrantLock::unlock);
+        }
+    }
+    
+    @Override
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            AtomicLong indexed = new AtomicLong();
+            long rebuildGeneration = Math.max(generation + 1, System.currentTimeMillis());
+            generation = rebuildGeneration;
+            Set<Long> touched = ConcurrentHashMap.newKeySet();
+            touchedDuringRebuild = touched;
+            try {
+                readTransaction.executeWithoutResult(status -> {
+                    try (Stream<Object[]> rows = expenseRepository.streamSearchRows()) {
+                        rows.forEach(row -> indexRebuiltRow(row, rebuildGeneration, touched, indexed));
+                    }
+                });
+                // Whatever the rebuild and apply() did not rewrite no longer exists
+                writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, rebuildGeneration - 1));
+                writer.commit();
+                searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                throw new RuntimeException("Search index rebuild failed", e);
+            } finally {
+                touchedDuringRebuild = null;
+            }
+            log.info("Rebuilt search index with {} expenses in {} ms ({} changed during the rebuild)",
+                    indexed.get(), (System.nanoTime() - started) / 1_000_000, touched.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+    
+    private void indexRebuiltRow(Object[] row, long rebuildGeneration, Set<Long> touched, AtomicLong indexed) {
+        Long id = ((Number) row[0]).longValue();
+        ReentrantLock lock = idLocks[stripe(id)];
+        lock.lock();
+        try {
+            // apply() already wrote a newer version of this row, or deleted it
+            if (!touched.contains(id)) {
+                writer.updateDocument(new Term(ID, id.toString()), toDocument(row, rebuildGeneration));
+                indexed.incrementAndGet();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Search index rebuild failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * True when the index cannot be trusted to match the expenses table: it
+     * was not closed cleanly, or predates the close marker, or is empty,
+     * while expenses exist.
+     */
+    @Override
+    public boolean needsRebuild() {
+        if (closedCleanly && writer.getDocStats().numDocs > 0) {
+            return false;
+        }
+        return Boolean.TRUE.equals(readTransaction.execute(status -> expenseRepository.count() > 0));
+    }
+    
+    // Stripe locks in ascending order, so concurrent callers cannot deadlock
+    private List<ReentrantLock> lockIds(List<Long> ids) {
+        Set<Integer> stripes = new TreeSet<>();
+        for (Long id : ids) {
+            stripes.add(stripe(id));
+        }
+        List<ReentrantLock> locks = new ArrayList<>(stripes.size());
+        for (int stripe : stripes) {
+            idLocks[stripe].lock();
+            locks.add(idLocks[stripe]);
+        }
+        return locks;
+    }
+    
+    private static int stripe(Long id) {
+        return Math.floorMod(Long.hashCode(id), LOCK_STRIPES);
+    }
+    
+    @Scheduled(fixedDelayString = "${search.lucene.commit-interval-ms:5000}")
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.warn("Search index commit failed", e);
+        }
+    }
+    
+    private Document toDocument(Object[] row, long documentGeneration) {
+        long id = ((Number) row[0]).longValue();
+        long date = ((LocalDate) row[4]).toEpochDay();
+        Document document = new Document();
+        document.add(new StringField(ID, Long.toString(id), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID, id));
+        document.add(new LongPoint(USER_ID, ((Number) row[1]).longValue()));
+        document.add(new LongPoint(CATEGORY_ID, ((Number) row[2]).longValue()));
+        document.add(new LongPoint(AMOUNT, toCents((BigDecimal) row[3])));
+        document.add(new LongPoint(DATE, date));
+        document.add(new NumericDocValuesField(DATE, date));
+        document.add(new LongPoint(GENERATION, documentGeneration));
+        document.add(new TextField(TEXT, Stream.of(row[5], row[6], row[7])
+                .filter(value -> value != null)
+                .map(Object::toString)
+                .collect(Collectors.joining(" ")), Field.Store.NO));
+        return document;
+    }
+    
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(TEXT, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid search text", e);
+        }
+        return terms;
+    }
+    
+    private long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+}
@@ -0,0 +1,89 @@
+package com.financetracker.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Search through the ft_expense_text FULLTEXT index of the expenses table.
+ * InnoDB keeps that index transactionally current, so there is nothing to
+ * apply or rebuild here. Every word is matched as a prefix; typo-tolerant
+ * (fuzzy) matching needs the Lucene backend.
+ */
+@Component
+@ConditionalOnProperty(name = "search.backend", havingValue = "mysql")
+public class MysqlExpenseSearchBackend implements ExpenseSearchBackend {
+    
+    private static final Logger log = LoggerFactory.getLogger(MysqlExpenseSearchBackend.class);
+    
+    private static final String MATCH = "MATCH(e.description, e.location, e.notes) AGAINST (:text IN BOOLEAN MODE)";
+    
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    
+    @Override
+    public Hits search(Long userId, ExpenseSearchQuery query, int offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        StringBuilder where = new StringBuilder(" FROM expenses e WHERE e.user_id = :userId");
+        
+        String booleanText = query.hasText() ? toBooleanQuery(query.getText()) : "";
+        if (!booleanText.isEmpty()) {
+            where.append(" AND ").append(MATCH);
+            params.addValue("text", booleanText);
+        }
+        if (query.getStartDate() != null) {
+            where.append(" AND e.expense_date >= :startDate");
+            params.addValue("startDate", query.getStartDate());
+        }
+        if (query.getEndDate() != null) {
+            where.append(" AND e.expense_date <= :endDate");
+            params.addValue("endDate", query.getEndDate());
+        }
+        if (query.getCategoryId() != null) {
+            where.append(" AND e.category_id = :categoryId");
+            params.addValue("categoryId", query.getCategoryId());
+        }
+        if (query.getMinAmount() != null) {
+            where.append(" AND e.amount >= :minAmount");
+            params.addValue("minAmount", query.getMinAmount());
+        }
+        if (query.getMaxAmount() != null) {
+            where.append(" AND e.amount <= :maxAmount");
+            params.addValue("maxAmount", query.getMaxAmount());
+        }
+        
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*)" + where, params, Long.class);
+        params.addValue("limit", limit);
+        params.addValue("offset", offset);
+        List<Long> ids = jdbcTemplate.queryForList("SELECT e.id" + where
+                + " ORDER BY " + (booleanText.isEmpty() ? "" : MATCH + " DESC, ")
+                + "e.expense_date DESC, e.id DESC LIMIT :limit OFFSET :offset", params, Long.class);
+        return new Hits(ids, total == null ? 0 : total, true);
+    }
+    
+    @Override
+    public void apply(ExpenseChangedEvent event) {
+        // Maintained by InnoDB in the writing transaction
+    }
+    
+    @Override
+    public void rebuild() {
+        log.info("The MySQL search backend uses the ft_expense_text index, which needs no rebuild");
+    }
+    
+    // "coffee sta" becomes "+coffee* +sta*"; boolean operators in the input are dropped
+    private String toBooleanQuery(String text) {
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> "+" + word + "*")
+                .collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,159 @@
+package com.financetracker.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Multinomial naive Bayes over the words of an expense's description and
+ * location, with add-one smoothing. Training is incremental: adding an
+ * expense only bumps a few counters, and removing one takes them back
+ * down. Reads run concurrently; training takes a short write lock.
+ */
+public class NaiveBayesModel {
+    
+    public record Prediction(Long categoryId, double probability) {
+    }
+    
+    private static final class CategoryStats {
+        final Map<String, Integer> words = new HashMap<>();
+        int documents;
+        long wordTotal;
+    }
+    
+    private final Map<Long, CategoryStats> categories = new HashMap<>();
+    private final Map<String, Integer> vocabulary = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int documents;
+    
+    public void add(Long categoryId, String description, String location) {
+        List<String> words = tokenize(description, location);
+        lock.writeLock().lock();
+        try {
+            CategoryStats stats = categories.computeIfAbsent(categoryId, id -> new CategoryStats());
+            stats.documents++;
+            documents++;
+            for (String word : words) {
+                stats.words.merge(word, 1, Integer::sum);
+                stats.wordTotal++;
+                vocabulary.merge(word, 1, Integer::sum);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Undoes an earlier {@link #add} of the same category and text. Texts the
+     * model never saw for that category are ignored.
+     */
+    public void remove(Long categoryId, String description, String location) {
+        List<String> words = tokenize(description, location);
+        lock.writeLock().lock();
+        try {
+            CategoryStats stats = categories.get(categoryId);
+            if (stats == null) {
+                return;
+            }
+            if (--stats.documents == 0) {
+                categories.remove(categoryId);
+            }
+            documents--;
+            for (String word : words) {
+                Integer count = stats.words.get(word);
+                if (count == null) {
+                    continue;
+                }
+                if (count > 1) {
+                    stats.words.put(word, count - 1);
+                } else {
+                    stats.words.remove(word);
+                }
+                stats.wordTotal--;
+                vocabulary.computeIfPresent(word, (key, total) -> total > 1 ? total - 1 : null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Categories ordered by posterior probability, or an empty list when the
+     * text has no word the model has seen.
+     */
+    public List<Prediction> predict(String description, String location) {
+        List<String> words = tokenize(description, location);
+        lock.readLock().lock();
+        try {
+            if (documents == 0 || words.stream().noneMatch(vocabulary::containsKey)) {
+                return List.of();
+            }
+            int vocabularySize = vocabulary.size();
+            List<Long> ids = new ArrayList<>(categories.keySet());
+            double[] scores = new double[ids.size()];
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < ids.size(); i++) {
+                CategoryStats stats = categories.get(ids.get(i));
+                double score = Math.log((double) stats.documents / documents);
+                double denominator = Math.log(stats.wordTotal + vocabularySize);
+                for (String word : words) {
+                    if (vocabulary.containsKey(word)) {
+                        score += Math.log(stats.words.getOrDefault(word, 0) + 1) - denominator;
+                    }
+                }
+                scores[i] = score;
+                max = Math.max(max, score);
+            }
+            // Normalise in log space so long texts do not underflow
+            double sum = 0;
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = Math.exp(scores[i] - max);
+                sum += scores[i];
+            }
+            List<Prediction> predictions = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                predictions.add(new Prediction(ids.get(i), scores[i] / sum));
+            }
+            predictions.sort(Comparator.comparingDouble(Prediction::probability).reversed());
+            return predictions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Lower-cased runs of at least two letters; amounts and reference numbers are noise
+    static List<String> tokenize(String... texts) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (int i = 0; i <= text.length(); i++) {
+                char c = i < text.length() ? text.charAt(i) : ' ';
+                if (Character.isLetter(c)) {
+                    word.append(Character.toLowerCase(c));
+                } else {
+                    if (word.length() >= 2) {
+                        words.add(word.toString());
+                    }
+                    word.setLength(0);
+                }
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,86 @@
+package com.financetracker.service;
+
+import com.financetracker.util.AesGcmFieldCipher;
+import com.financetracker.util.EncryptionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Background migration of payment methods written by the legacy Jasypt
+ * cipher to the current AES-GCM format. Rows are processed in id order in
+ * small chunks, and each update only applies if the row still holds the
+ * value that was read, so concurrent edits are never overwritten.
+ */
+@Service
+public class PaymentMethodReencryptionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(PaymentMethodReencryptionService.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private EncryptionUtil encryptionUtil;
+    
+    @Value("${encryption.reencrypt.batch-size:500}")
+    private int batchSize;
+    
+    @Scheduled(cron = "${encryption.reencrypt.cron:-}")
+    public void scheduledReencryption() {
+        reencryptAll();
+    }
+    
+    /**
+     * Re-encrypt every legacy value; returns the number of rows migrated.
+     */
+    public int reencryptAll() {
+        if (encryptionUtil.isLegacyCipherActive()) {
+            return 0;
+        }
+        
+        long lastId = 0;
+        int migrated = 0;
+        int skipped = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, payment_method FROM expenses WHERE id > ? AND payment_method IS NOT NULL " +
+                    "AND payment_method <> '' AND payment_method NOT LIKE ? ORDER BY id LIMIT ?",
+                    lastId, AesGcmFieldCipher.PREFIX + "%", batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            lastId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+            
+            // Legacy decryption is the slow part, so convert the chunk in parallel
+            List<Object[]> updates = rows.parallelStream()
+                    .map(row -> {
+                        String legacy = (String) row.get("payment_method");
+                        try {
+                            String plaintext = encryptionUtil.decrypt(legacy);
+                            return new Object[]{encryptionUtil.encrypt(plaintext), row.get("id"), legacy};
+                        } catch (RuntimeException e) {
+                            return null;
+                        }
+                    })
+                    .filter(Objects::nonNull)
+                    .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+            skipped += rows.size() - updates.size();
+            
+            jdbcTemplate.batchUpdate("UPDATE expenses SET payment_method = ? WHERE id = ? AND payment_method = ?", updates);
+            migrated += updates.size();
+        }
+        
+        log.info("Re-encrypted {} payment methods, skipped {} unreadable values", migrated, skipped);
+        return migrated;
+    }
+}
@@ -0,0 +1,48 @@
+package com.financetracker.service;
+
+import java.time.LocalDate;
+
+/**
+ * Calendar period closest to a detected interval between charges. Monthly
+ * and longer periods advance by calendar months so a charge on the 31st
+ * does not drift; CUSTOM advances by the rounded interval.
+ */
+public enum RecurrencePeriod {
+    WEEKLY(7),
+    BIWEEKLY(14),
+    MONTHLY(30.44),
+    QUARTERLY(91.31),
+    YEARLY(365.25),
+    CUSTOM(0);
+    
+    // Largest relative distance from a period's length that still counts as that period
+    private static final double TOLERANCE = 0.15;
+    
+    private final double days;
+    
+    RecurrencePeriod(double days) {
+        this.days = days;
+    }
+    
+    public static RecurrencePeriod nearest(double periodDays) {
+        for (RecurrencePeriod period : values()) {
+            if (period != CUSTOM && Math.abs(periodDays - period.days) <= period.days * TOLERANCE) {
+                return period;
+            }
+        }
+        return CUSTOM;
+    }
+    
+    public LocalDate next(LocalDate date, double periodDays) {
+        switch (this) {
+            case MONTHLY:
+                return date.plusMonths(1);
+            case QUARTERLY:
+                return date.plusMonths(3);
+            case YEARLY:
+                return date.plusYears(1);
+            default:
+                return date.plusDays(Math.max(1, Math.round(periodDays)));
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.financetracker.service;
+
+import com.financetracker.entity.RecurringMerchant;
+import com.financetracker.entity.RecurringWatermark;
+import com.financetracker.repository.ExpenseRepository;
+import com.financetracker.repository.RecurringMerchantRepository;
+import com.financetracker.repository.RecurringWatermarkRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Background detection of recurring charges. Each run folds only the
+ * expenses added since the user's watermark into per-merchant state
+ * (recent charge dates, interval, amount mean and variance), so the
+ * first run is the backfill and later runs never re-scan the history.
+ * A merchant is recurring once it has been charged often enough, at a
+ * regular interval and for a similar amount.
+ * <p>
+ * Ids are assigned at insert but become visible at commit, so a committed
+ * id can overtake a smaller one whose transaction is still open. The
+ * watermark therefore never passes an expense this instance inserted
+ * whose transaction is still open, nor a row younger than
+ * {@code recurring.detector.settle-seconds}, which covers inserts of
+ * other instances and the moment before an insert is tracked.
+ * <p>
+ * Updates and deletes of expenses the detector has already seen are not
+ * reflected; the state is a statistical summary, not a ledger.
+ */
+@Service
+public class RecurringExpenseDetector {
+    
+    private static final Logger log = LoggerFactory.getLogger(RecurringExpenseDetector.class);
+    
+    // Distinct charge days kept per merchant; imports arrive out of date order
+    private static final int RECENT_DATES = 12;
+    private static final double MIN_PERIOD_DAYS = 5;
+    private static final double MAX_PERIOD_DAYS = 400;
+    private static final int MAX_MERCHANT_KEY_LENGTH = 100;
+    private static final int MAX_MERCHANT_NAME_LENGTH = 255;
+    
+    private record BatchResult(long lastExpenseId, int folded, boolean more) {
+    }
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private RecurringMerchantRepository merchantRepository;
+    
+    @Autowired
+    private RecurringWatermarkRepository watermarkRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${recurring.detector.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${recurring.detector.settle-seconds:60}")
+    private long settleSeconds;
+    
+    @Value("${recurring.min-occurrences:3}")
+    private int minOccurrences;
+    
+    @Value("${recurring.max-amount-variation:0.25}")
+    private double maxAmountVariation;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    // Ids of expenses inserted by this instance whose transaction has not completed
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Hold the watermark below expenses just inserted in the current
+     * transaction until it completes; call right after the insert.
+     */
+    public void trackInserts(List<Long> expenseIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        inFlight.addAll(expenseIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                inFlight.removeAll(expenseIds);
+            }
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${recurring.detector.interval-ms:300000}",
+            initialDelayString = "${recurring.detector.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        runAll();
+    }
+    
+    /**
+     * Fold every user's new expenses; returns the number of expenses folded.
+     */
+    public synchronized int runAll() {
+        long started = System.nanoTime();
+        Map<Long, Long> watermarks = watermarkRepository.findAll().stream()
+                .collect(Collectors.toMap(RecurringWatermark::getUserId, RecurringWatermark::getLastExpenseId));
+        int folded = 0;
+        int users = 0;
+        for (Object[] row : expenseRepository.getLatestIdPerUser()) {
+            Long userId = (Long) row[0];
+            long watermark = watermarks.getOrDefault(userId, 0L);
+            if (((Number) row[1]).longValue() > watermark) {
+                folded += runForUser(userId, watermark);
+                users++;
+            }
+        }
+        if (folded > 0) {
+            log.info("Recurring detector folded {} expenses of {} users in {} ms",
+                    folded, users, (System.nanoTime() - started) / 1_000_000);
+        }
+        return folded;
+    }
+    
+    // One transaction per batch, so a large backfill never holds a long transaction
+    private int runForUser(Long userId, long watermark) {
+        // Rows younger than this may sit after an id whose transaction has not committed yet
+        LocalDateTime settledBefore = LocalDateTime.now().minusSeconds(settleSeconds);
+        int folded = 0;
+        long after = watermark;
+        while (true) {
+            long from = after;
+            BatchResult result = transactionTemplate.execute(status -> foldBatch(userId, from, settledBefore));
+            folded += result.folded();
+            after = result.lastExpenseId();
+            if (!result.more()) {
+                return folded;
+            }
+        }
+    }
+    
+    private BatchResult foldBatch(Long userId, long afterId, LocalDateTime settledBefore) {
+        // Read before the rows: an insert that commits in between must still hold them back
+        Long oldestInFlight = inFlight.ceiling(Long.MIN_VALUE);
+        List<Object[]> rows = expenseRepository.findRecurrenceRowsAfter(userId, afterId, PageRequest.of(0, batchSize));
+        List<Object[]> settled = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            LocalDateTime createdAt = (LocalDateTime) row[5];
+            if (createdAt != null && createdAt.isAfter(settledBefore)) {
+                break;
+            }
+            if (oldestInFlight != null && (Long) row[0] > oldestInFlight) {
+                break;
+            }
+            settled.add(row);
+        }
+        if (settled.isEmpty()) {
+            return new BatchResult(afterId, 0, false);
+        }
+        
+        Map<String, List<Object[]>> byMerchant = new LinkedHashMap<>();
+        for (Object[] row : settled) {
+            String key = merchantKey((String) row[3]);
+            if (key != null) {
+                byMerchant.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+            }
+        }
+        Map<String, RecurringMerchant> merchants = byMerchant.isEmpty() ? new LinkedHashMap<>()
+                : merchantRepository.findByUserIdAndMerchantKeyIn(userId, byMerchant.keySet()).stream()
+                        .collect(Collectors.toMap(RecurringMerchant::getMerchantKey, Function.identity()));
+        byMerchant.forEach((key, charges) -> {
+            // Fold in date order so back-dated imports within a batch still yield intervals
+            charges.sort(Comparator.comparing((Object[] row) -> (LocalDate) row[1])
+                    .thenComparing(row -> (Long) row[0]));
+            RecurringMerchant merchant = merchants.get(key);
+            for (Object[] row : charges) {
+                merchant = fold(merchant, userId, key, (LocalDate) row[1], (BigDecimal) row[2],
+                        (String) row[3], (Long) row[4]);
+            }
+            merchant.setRecurring(isRecurring(merchant));
+            merchants.put(key, merchant);
+        });
+        merchantRepository.saveAll(merchants.values());
+        
+        long lastExpenseId = (Long) settled.get(settled.size() - 1)[0];
+        watermarkRepository.save(new RecurringWatermark(userId, lastExpenseId));
+        return new BatchResult(lastExpenseId, settled.size(), settled.size() == batchSize);
+    }
+    
+    private RecurringMerchant fold(RecurringMerchant merchant, Long userId, String key, LocalDate date,
+                                   BigDecimal amount, String description, Long categoryId) {
+        double value = amount.doubleValue();
+        if (merchant == null) {
+            return new RecurringMerchant(null, userId, key, displayName(description), categoryId, date, date,
+                    1, date.toString(), 0, 0.0, 0.0, value, 0.0, amount, false, null);
+        }
+        
+        int occurrences = merchant.getOccurrences() + 1;
+        double delta = value - merchant.getAmountMean();
+        double mean = merchant.getAmountMean() + delta / occurrences;
+        merchant.setAmountM2(merchant.getAmountM2() + delta * (value - mean));
+        merchant.setAmountMean(mean);
+        merchant.setOccurrences(occurrences);
+        
+        if (!date.isBefore(merchant.getLastDate())) {
+            merchant.setLastDate(date);
+            merchant.setLastAmount(amount);
+            merchant.setMerchantName(displayName(description));
+            merchant.setCategoryId(categoryId);
+        }
+        if (date.isBefore(merchant.getFirstDate())) {
+            merchant.setFirstDate(date);
+        }
+        
+        TreeSet<LocalDate> dates = new TreeSet<>();
+        for (String recent : merchant.getRecentDates().split(",")) {
+            dates.add(LocalDate.parse(recent));
+        }
+        // A charge older than every kept day counts towards the amounts but not the interval
+        if (dates.add(date) && dates.size() > RECENT_DATES) {
+            dates.pollFirst();
+        }
+        merchant.setRecentDates(dates.stream().map(LocalDate::toString).collect(Collectors.joining(",")));
+        setPeriod(merchant, new ArrayList<>(dates));
+        return merchant;
+    }
+    
+    // Median interval is robust to a skipped or doubled charge
+    private void setPeriod(RecurringMerchant merchant, List<LocalDate> dates) {
+        double[] intervals = new double[dates.size() - 1];
+        for (int i = 1; i < dates.size(); i++) {
+            intervals[i - 1] = ChronoUnit.DAYS.between(dates.get(i - 1), dates.get(i));
+        }
+        merchant.setIntervalCount(intervals.length);
+        if (intervals.length == 0) {
+            return;
+        }
+        double[] sorted = intervals.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        double median = sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+        double deviation = 0;
+        for (double interval : intervals) {
+            deviation += Math.abs(interval - median);
+        }
+        merchant.setPeriodDays(median);
+        merchant.setPeriodDeviation(deviation / intervals.length);
+    }
+    
+    boolean isRecurring(RecurringMerchant merchant) {
+        if (merchant.getOccurrences() < minOccurrences || merchant.getIntervalCount() < minOccurrences - 1) {
+            return false;
+        }
+        double period = merchant.getPeriodDays();
+        if (period < MIN_PERIOD_DAYS || period > MAX_PERIOD_DAYS
+                || merchant.getPeriodDeviation() > Math.max(2.0, period * 0.15)) {
+            return false;
+        }
+        double deviation = Math.sqrt(merchant.getAmountM2() / (merchant.getOccurrences() - 1));
+        return merchant.getAmountMean() > 0 && deviation / merchant.getAmountMean() <= maxAmountVariation;
+    }
+    
+    /**
+     * Lower-cased letters of a description with single spaces, so "NETFLIX.COM 0423"
+     * and "Netflix.com 0523" group together; null when nothing is left.
+     */
+    static String merchantKey(String description) {
+        if (description == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder();
+        boolean space = false;
+        for (int i = 0; i < description.length() && key.length() < MAX_MERCHANT_KEY_LENGTH; i++) {
+            char c = description.charAt(i);
+            if (Character.isLetter(c)) {
+                if (space && key.length() > 0) {
+                    key.append(' ');
+                }
+                key.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        String trimmed = key.substring(0, Math.min(key.length(), MAX_MERCHANT_KEY_LENGTH)).trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+    
+    private static String displayName(String description) {
+        String name = description.trim();
+        return name.length() > MAX_MERCHANT_NAME_LENGTH ? name.substring(0, MAX_MERCHANT_NAME_LENGTH) : name;
+    }
+}
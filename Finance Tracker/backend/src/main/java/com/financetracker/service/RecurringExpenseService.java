@@ -0,0 +1,102 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.CategoryDto;
+import com.financetracker.dto.RecurringExpenseDto;
+import com.financetracker.dto.UpcomingChargeDto;
+import com.financetracker.entity.RecurringMerchant;
+import com.financetracker.repository.RecurringMerchantRepository;
+import com.financetracker.security.CurrentUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring charges found by {@link RecurringExpenseDetector}, read from its
+ * per-merchant state without touching the expenses table.
+ */
+@Service
+public class RecurringExpenseService {
+    
+    @Autowired
+    private RecurringMerchantRepository merchantRepository;
+    
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Transactional(readOnly = true)
+    public List<RecurringExpenseDto> getRecurringExpenses(boolean includeInactive) {
+        Long userId = currentUserService.getCurrentUser().getId();
+        LocalDate today = LocalDate.now();
+        return merchantRepository.findByUserIdAndRecurringTrue(userId)
+                .stream()
+                .map(merchant -> convertToDto(merchant, today))
+                .filter(dto -> includeInactive || dto.isActive())
+                .sorted(Comparator.comparing(RecurringExpenseDto::getNextExpectedDate))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Charges expected from today through {@code days} days ahead, by date.
+     * Weekly and other short periods contribute one entry per expected charge.
+     */
+    @Transactional(readOnly = true)
+    public List<UpcomingChargeDto> getUpcomingCharges(int days) {
+        Long userId = currentUserService.getCurrentUser().getId();
+        LocalDate today = LocalDate.now();
+        LocalDate until = today.plusDays(days);
+        List<UpcomingChargeDto> charges = new ArrayList<>();
+        for (RecurringMerchant merchant : merchantRepository.findByUserIdAndRecurringTrue(userId)) {
+            RecurringExpenseDto recurring = convertToDto(merchant, today);
+            if (!recurring.isActive()) {
+                continue;
+            }
+            RecurrencePeriod period = RecurrencePeriod.valueOf(recurring.getPeriod());
+            for (LocalDate date = recurring.getNextExpectedDate(); !date.isAfter(until);
+                 date = period.next(date, merchant.getPeriodDays())) {
+                if (!date.isBefore(today)) {
+                    charges.add(new UpcomingChargeDto(recurring.getMerchant(), recurring.getCategoryId(),
+                            recurring.getCategoryName(), date, recurring.getAverageAmount()));
+                }
+            }
+        }
+        charges.sort(Comparator.comparing(UpcomingChargeDto::getExpectedDate)
+                .thenComparing(UpcomingChargeDto::getMerchant));
+        return charges;
+    }
+    
+    private RecurringExpenseDto convertToDto(RecurringMerchant merchant, LocalDate today) {
+        RecurrencePeriod period = RecurrencePeriod.nearest(merchant.getPeriodDays());
+        LocalDate next = period.next(merchant.getLastDate(), merchant.getPeriodDays());
+        long grace = Math.max(3, Math.round(merchant.getPeriodDays() / 4));
+        
+        RecurringExpenseDto dto = new RecurringExpenseDto();
+        dto.setMerchant(merchant.getMerchantName());
+        dto.setCategoryId(merchant.getCategoryId());
+        CategoryDto category = categoryRegistry.get(merchant.getCategoryId());
+        if (category != null) {
+            dto.setCategoryName(category.getName());
+            dto.setCategoryIcon(category.getIcon());
+        }
+        dto.setPeriod(period.name());
+        dto.setPeriodDays(Math.round(merchant.getPeriodDays() * 10) / 10.0);
+        dto.setAverageAmount(BigDecimal.valueOf(merchant.getAmountMean()).setScale(2, RoundingMode.HALF_UP));
+        dto.setLastAmount(merchant.getLastAmount());
+        dto.setOccurrences(merchant.getOccurrences());
+        dto.setFirstDate(merchant.getFirstDate());
+        dto.setLastDate(merchant.getLastDate());
+        dto.setNextExpectedDate(next);
+        dto.setActive(!today.isAfter(next.plusDays(grace)));
+        return dto;
+    }
+}
@@ -0,0 +1,119 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.AmountDistributionDto;
+import com.financetracker.dto.CategoryDto;
+import com.financetracker.dto.LocationSpendDto;
+import com.financetracker.dto.PercentilesDto;
+import com.financetracker.dto.TopSpendingDto;
+import com.financetracker.repository.ExpenseAmountBinRepository;
+import com.financetracker.repository.ExpenseRepository;
+import com.financetracker.security.CurrentUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Top-N and percentile analytics. Rankings are computed by the database
+ * with a row limit, and percentiles are read from the per-day amount
+ * histograms merged in a grouped query, so neither loads every expense of
+ * the range.
+ */
+@Service
+public class SpendingInsightsService {
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private ExpenseAmountBinRepository binRepository;
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+    
+    @Transactional(readOnly = true)
+    public TopSpendingDto getTopSpending(LocalDate startDate, LocalDate endDate, int limit) {
+        List<LocationSpendDto> topLocations = expenseRepository
+                .getTopLocations(currentUserService.getCurrentUserId(), startDate, endDate, PageRequest.of(0, limit))
+                .stream()
+                .map(row -> new LocationSpendDto(
+                        (String) row[0],
+                        (BigDecimal) row[1],
+                        ((Number) row[2]).longValue()
+                ))
+                .collect(Collectors.toList());
+        return new TopSpendingDto(expenseService.getLargestExpenses(startDate, endDate, limit), topLocations);
+    }
+    
+    /**
+     * @param categoryIds only these categories when not empty
+     * @param quantiles   fractions between 0 and 1, e.g. 0.5 for the median
+     */
+    @Transactional(readOnly = true)
+    public PercentilesDto getPercentiles(LocalDate startDate, LocalDate endDate, Collection<Long> categoryIds,
+                                         List<Double> quantiles) {
+        for (Double q : quantiles) {
+            if (q < 0 || q > 1) {
+                throw new RuntimeException("Quantiles must be between 0 and 1");
+            }
+        }
+        
+        Long userId = currentUserService.getCurrentUserId();
+        List<Object[]> rows = categoryIds == null || categoryIds.isEmpty()
+                ? binRepository.getMergedBins(userId, startDate, endDate)
+                : binRepository.getMergedBinsForCategories(userId, startDate, endDate, categoryIds);
+        
+        AmountSketch overall = new AmountSketch();
+        Map<Long, AmountSketch> byCategory = new HashMap<>();
+        for (Object[] row : rows) {
+            Long categoryId = ((Number) row[0]).longValue();
+            byCategory.computeIfAbsent(categoryId, id -> new AmountSketch())
+                    .add(((Number) row[1]).intValue(), ((Number) row[2]).longValue());
+        }
+        byCategory.values().forEach(overall::merge);
+        
+        PercentilesDto dto = new PercentilesDto();
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        dto.setRelativeAccuracy(AmountSketch.RELATIVE_ACCURACY);
+        dto.setOverall(toDistribution(null, overall, quantiles));
+        dto.setCategories(byCategory.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().getCount(), a.getValue().getCount()))
+                .map(entry -> toDistribution(entry.getKey(), entry.getValue(), quantiles))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+    
+    private AmountDistributionDto toDistribution(Long categoryId, AmountSketch sketch, List<Double> quantiles) {
+        Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+        for (Double q : quantiles) {
+            percentiles.put("p" + BigDecimal.valueOf(q).movePointRight(2).stripTrailingZeros().toPlainString(), sketch.quantile(q));
+        }
+        
+        AmountDistributionDto distribution = new AmountDistributionDto();
+        if (categoryId != null) {
+            CategoryDto category = categoryRegistry.get(categoryId);
+            distribution.setCategoryId(categoryId);
+            distribution.setCategoryName(category != null ? category.getName() : null);
+            distribution.setCategoryIcon(category != null ? category.getIcon() : null);
+        }
+        distribution.setTransactionCount(sketch.getCount());
+        distribution.setPercentiles(percentiles);
+        return distribution;
+    }
+}
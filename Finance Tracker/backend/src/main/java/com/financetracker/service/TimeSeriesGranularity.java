@@ -0,0 +1,62 @@
+package com.financetracker.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket sizes of the analytics time series. Buckets are identified by their
+ * first day; weeks start on Monday, like budget weeks.
+ */
+public enum TimeSeriesGranularity {
+    DAY,
+    WEEK,
+    MONTH,
+    QUARTER,
+    YEAR;
+    
+    public LocalDate startOf(LocalDate date) {
+        switch (this) {
+            case DAY:
+                return date;
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            case QUARTER:
+                return LocalDate.of(date.getYear(), (date.getMonthValue() - 1) / 3 * 3 + 1, 1);
+            default:
+                return date.withDayOfYear(1);
+        }
+    }
+    
+    public LocalDate next(LocalDate bucketStart) {
+        switch (this) {
+            case DAY:
+                return bucketStart.plusDays(1);
+            case WEEK:
+                return bucketStart.plusWeeks(1);
+            case MONTH:
+                return bucketStart.plusMonths(1);
+            case QUARTER:
+                return bucketStart.plusMonths(3);
+            default:
+                return bucketStart.plusYears(1);
+        }
+    }
+    
+    /**
+     * Whether buckets can be assembled from per-month rows instead of per-day rows.
+     */
+    public boolean isMonthAligned() {
+        return this == MONTH || this == QUARTER || this == YEAR;
+    }
+    
+    public static TimeSeriesGranularity from(String granularity) {
+        try {
+            return valueOf(granularity.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException("Unknown granularity: " + granularity);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.CategoryDto;
+import com.financetracker.dto.CategorySeriesDto;
+import com.financetracker.dto.TimeSeriesDto;
+import com.financetracker.repository.ExpenseDailyRollupRepository;
+import com.financetracker.repository.ExpenseRepository;
+import com.financetracker.security.CurrentUserService;
+import com.financetracker.util.AmountUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Bucketed expense series for charts. One grouped query returns per-day (or,
+ * for month, quarter and year buckets, per-month) totals per category, which
+ * are folded into dense buckets here, so the response grows with the number
+ * of buckets rather than with days or transactions.
+ */
+@Service
+public class TimeSeriesService {
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private ExpenseDailyRollupRepository rollupRepository;
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+    
+    // "rollup" reads expense_daily_rollup; any other engine groups the expenses table
+    @Value("${analytics.engine:query}")
+    private String analyticsEngine;
+    
+    @Value("${analytics.timeseries.max-buckets:1000}")
+    private int maxBuckets;
+    
+    private static class CategoryColumns {
+        final BigDecimal[] totals;
+        final long[] counts;
+        BigDecimal sum = BigDecimal.ZERO;
+        
+        CategoryColumns(int size) {
+            totals = new BigDecimal[size];
+            Arrays.fill(totals, BigDecimal.ZERO);
+            counts = new long[size];
+        }
+    }
+    
+    /**
+     * @param categoryIds only these categories when not empty
+     * @param byCategory  also return one series per category
+     */
+    @Transactional(readOnly = true)
+    public TimeSeriesDto getTimeSeries(TimeSeriesGranularity granularity, LocalDate startDate, LocalDate endDate,
+                                       Collection<Long> categoryIds, boolean byCategory) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("endDate must not be before startDate");
+        }
+        
+        List<LocalDate> buckets = new ArrayList<>();
+        Map<LocalDate, Integer> bucketIndex = new HashMap<>();
+        for (LocalDate bucket = granularity.startOf(startDate); !bucket.isAfter(endDate); bucket = granularity.next(bucket)) {
+            if (buckets.size() == maxBuckets) {
+                throw new RuntimeException("Too many buckets, use a coarser granularity or a shorter range (max "
+                        + maxBuckets + ")");
+            }
+            bucketIndex.put(bucket, buckets.size());
+            buckets.add(bucket);
+        }
+        
+        BigDecimal[] totals = new BigDecimal[buckets.size()];
+        Arrays.fill(totals, BigDecimal.ZERO);
+        long[] counts = new long[buckets.size()];
+        Map<Long, CategoryColumns> categoryColumns = new HashMap<>();
+        
+        boolean monthRows = granularity.isMonthAligned();
+        for (Object[] row : loadRows(currentUserService.getCurrentUserId(), monthRows, startDate, endDate, categoryIds)) {
+            int column = monthRows ? 2 : 1;
+            LocalDate day = monthRows
+                    ? LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1)
+                    : (LocalDate) row[0];
+            int i = bucketIndex.get(granularity.startOf(day));
+            Long categoryId = ((Number) row[column]).longValue();
+            BigDecimal amount = AmountUtil.toBigDecimal(row[column + 1]);
+            long count = ((Number) row[column + 2]).longValue();
+            
+            totals[i] = totals[i].add(amount);
+            counts[i] += count;
+            if (byCategory) {
+                CategoryColumns columns = categoryColumns.computeIfAbsent(categoryId, id -> new CategoryColumns(buckets.size()));
+                columns.totals[i] = columns.totals[i].add(amount);
+                columns.counts[i] += count;
+                columns.sum = columns.sum.add(amount);
+            }
+        }
+        
+        TimeSeriesDto dto = new TimeSeriesDto();
+        dto.setGranularity(granularity.name().toLowerCase());
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        dto.setBuckets(buckets);
+        dto.setTotals(Arrays.asList(totals));
+        dto.setCounts(Arrays.stream(counts).boxed().collect(Collectors.toList()));
+        if (byCategory) {
+            dto.setCategories(categoryColumns.entrySet().stream()
+                    .sorted((a, b) -> b.getValue().sum.compareTo(a.getValue().sum))
+                    .map(entry -> toCategorySeries(entry.getKey(), entry.getValue()))
+                    .collect(Collectors.toList()));
+        }
+        return dto;
+    }
+    
+    /**
+     * Per-day rows (date, category id, sum, count), or per-month rows
+     * (year, month, category id, sum, count), of the current engine.
+     */
+    List<Object[]> loadRows(Long userId, boolean monthRows, LocalDate startDate, LocalDate endDate,
+                                    Collection<Long> categoryIds) {
+        boolean useRollups = "rollup".equalsIgnoreCase(analyticsEngine);
+        boolean filtered = categoryIds != null && !categoryIds.isEmpty();
+        if (monthRows) {
+            if (filtered) {
+                return useRollups
+                        ? rollupRepository.getMonthlySeriesForCategories(userId, startDate, endDate, categoryIds)
+                        : expenseRepository.getMonthlySeriesForCategories(userId, startDate, endDate, categoryIds);
+            }
+            return useRollups
+                    ? rollupRepository.getMonthlySeries(userId, startDate, endDate)
+                    : expenseRepository.getMonthlySeries(userId, startDate, endDate);
+        }
+        if (filtered) {
+            return useRollups
+                    ? rollupRepository.getDailySeriesForCategories(userId, startDate, endDate, categoryIds)
+                    : expenseRepository.getDailySeriesForCategories(userId, startDate, endDate, categoryIds);
+        }
+        return useRollups
+                ? rollupRepository.getDailySeries(userId, startDate, endDate)
+                : expenseRepository.getDailySeries(userId, startDate, endDate);
+    }
+    
+    private CategorySeriesDto toCategorySeries(Long categoryId, CategoryColumns columns) {
+        CategoryDto category = categoryRegistry.get(categoryId);
+        CategorySeriesDto series = new CategorySeriesDto();
+        series.setCategoryId(categoryId);
+        series.setCategoryName(category != null ? category.getName() : null);
+        series.setCategoryIcon(category != null ? category.getIcon() : null);
+        series.setTotals(Arrays.asList(columns.totals));
+        series.setCounts(Arrays.stream(columns.counts).boxed().collect(Collectors.toList()));
+        return series;
+    }
+}
@@ -0,0 +1,101 @@
+package com.financetracker.util;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * AES-256-GCM field cipher. The key is derived once at startup and each
+ * thread reuses its own Cipher instance, so a value costs one AES-GCM
+ * operation. Ciphertext format: "v2:" + base64(iv || ciphertext || tag).
+ */
+@Component
+public class AesGcmFieldCipher implements FieldCipher {
+    
+    public static final String PREFIX = "v2:";
+    
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final int KDF_ITERATIONS = 65536;
+    
+    @Value("${encryption.field.key:}")
+    private String configuredKey;
+    
+    @Value("${jasypt.encryptor.password}")
+    private String encryptionPassword;
+    
+    @Value("${encryption.field.salt:expense-tracker-field-key}")
+    private String keySalt;
+    
+    private final SecureRandom random = new SecureRandom();
+    
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM is not available", e);
+        }
+    });
+    
+    private SecretKey key;
+    
+    @PostConstruct
+    void init() throws GeneralSecurityException {
+        if (configuredKey != null && !configuredKey.isEmpty()) {
+            key = new SecretKeySpec(Base64.getDecoder().decode(configuredKey), "AES");
+        } else {
+            // Derive from the existing encryption password so no new secret is required
+            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            PBEKeySpec spec = new PBEKeySpec(encryptionPassword.toCharArray(),
+                    keySalt.getBytes(StandardCharsets.UTF_8), KDF_ITERATIONS, 256);
+            key = new SecretKeySpec(factory.generateSecret(spec).getEncoded(), "AES");
+        }
+    }
+    
+    @Override
+    public String encrypt(String plaintext) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] encrypted = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+            
+            ByteBuffer buffer = ByteBuffer.allocate(IV_LENGTH + encrypted.length);
+            buffer.put(iv).put(encrypted);
+            return PREFIX + Base64.getEncoder().encodeToString(buffer.array());
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Encryption failed", e);
+        }
+    }
+    
+    @Override
+    public String decrypt(String ciphertext) {
+        try {
+            byte[] data = Base64.getDecoder().decode(ciphertext.substring(PREFIX.length()));
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, data, 0, IV_LENGTH));
+            byte[] decrypted = cipher.doFinal(data, IV_LENGTH, data.length - IV_LENGTH);
+            return new String(decrypted, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new RuntimeException("Decryption failed", e);
+        }
+    }
+    
+    @Override
+    public boolean isOwnCiphertext(String ciphertext) {
+        return ciphertext.startsWith(PREFIX);
+    }
+}
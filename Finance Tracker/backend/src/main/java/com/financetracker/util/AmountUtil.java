@@ -0,0 +1,23 @@
+package com.financetracker.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversions for amounts read from aggregate queries, whose SUM columns
+ * come back as BigDecimal, Double or Long depending on the database.
+ */
+public final class AmountUtil {
+    
+    private AmountUtil() {
+    }
+    
+    /**
+     * The value as a BigDecimal; null, as returned by a SUM over no rows, is zero.
+     */
+    public static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        return value == null ? BigDecimal.ZERO : new BigDecimal(value.toString());
+    }
+}
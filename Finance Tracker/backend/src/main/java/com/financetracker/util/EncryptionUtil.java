@@ -1,70 +1,72 @@
 package com.financetracker.util;
 
-import org.jasypt.encryption.StringEncryptor;
-import org.jasypt.encryption.pbe.StandardPBEStringEncryptor;
-import org.jasypt.encryption.pbe.config.EnvironmentStringPBEConfig;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.Cipher;
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
-import java.util.Base64;
-
 @Component
 public class EncryptionUtil {
     
-    private static final String ALGORITHM = "AES";
-    private static final int KEY_SIZE = 256;
+    @Autowired
+    private AesGcmFieldCipher aesGcmCipher;
     
-    @Value("${jasypt.encryptor.password}")
-    private String encryptionPassword;
+    @Autowired
+    private JasyptFieldCipher jasyptCipher;
     
-    private StringEncryptor stringEncryptor;
+    /**
+     * Cipher used for new values: "aes-gcm" (default) or "jasypt".
+     */
+    @Value("${encryption.field.cipher:aes-gcm}")
+    private String activeCipher;
     
-    private StringEncryptor getEncryptor() {
-        if (stringEncryptor == null) {
-            StandardPBEStringEncryptor encryptor = new StandardPBEStringEncryptor();
-            EnvironmentStringPBEConfig config = new EnvironmentStringPBEConfig();
-            config.setPassword(encryptionPassword);
-            config.setAlgorithm("PBEWithMD5AndDES");
-            encryptor.setConfig(config);
-            stringEncryptor = encryptor;
-        }
-        return stringEncryptor;
+    public boolean isLegacyCipherActive() {
+        return "jasypt".equalsIgnoreCase(activeCipher);
+    }
+    
+    private FieldCipher writeCipher() {
+        return isLegacyCipherActive() ? jasyptCipher : aesGcmCipher;
+    }
+    
+    private FieldCipher readCipher(String encryptedData) {
+        return aesGcmCipher.isOwnCiphertext(encryptedData) ? aesGcmCipher : jasyptCipher;
     }
     
     /**
-     * Encrypt sensitive financial data using AES-256
+     * Encrypt sensitive financial data using AES-256-GCM
      */
     public String encrypt(String data) {
         if (data == null || data.isEmpty()) {
             return data;
         }
         try {
-            return getEncryptor().encrypt(data);
+            return writeCipher().encrypt(data);
         } catch (Exception e) {
             throw new RuntimeException("Encryption failed", e);
         }
     }
     
     /**
-     * Decrypt sensitive financial data
+     * Decrypt sensitive financial data, written by either the current or the legacy cipher
      */
     public String decrypt(String encryptedData) {
         if (encryptedData == null || encryptedData.isEmpty()) {
             return encryptedData;
         }
         try {
-            return getEncryptor().decrypt(encryptedData);
+            return readCipher(encryptedData).decrypt(encryptedData);
         } catch (Exception e) {
             throw new RuntimeException("Decryption failed", e);
         }
     }
     
+    /**
+     * Whether a stored value was written by a cipher other than the active one
+     */
+    public boolean needsReencryption(String encryptedData) {
+        return encryptedData != null && !encryptedData.isEmpty()
+                && !writeCipher().isOwnCiphertext(encryptedData);
+    }
+    
     /**
      * Encrypt payment method information
      */
@@ -79,4 +81,3 @@ public class EncryptionUtil {
         return decrypt(encryptedPaymentMethod);
     }
 }
-
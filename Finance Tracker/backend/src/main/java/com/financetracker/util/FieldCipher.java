@@ -0,0 +1,18 @@
+package com.financetracker.util;
+
+/**
+ * Encrypts and decrypts individual column values. Implementations tag their
+ * ciphertext so that {@link EncryptionUtil} can pick the right cipher when
+ * reading values written by an older scheme.
+ */
+public interface FieldCipher {
+    
+    String encrypt(String plaintext);
+    
+    String decrypt(String ciphertext);
+    
+    /**
+     * Whether the value was produced by this cipher.
+     */
+    boolean isOwnCiphertext(String ciphertext);
+}
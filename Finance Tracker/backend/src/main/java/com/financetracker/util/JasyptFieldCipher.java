@@ -0,0 +1,46 @@
+package com.financetracker.util;
+
+import jakarta.annotation.PostConstruct;
+import org.jasypt.encryption.pbe.StandardPBEStringEncryptor;
+import org.jasypt.encryption.pbe.config.EnvironmentStringPBEConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Legacy Jasypt PBEWithMD5AndDES cipher. Every call runs the password key
+ * derivation, so it is kept only to read values written before AES-GCM.
+ * Its ciphertext carries no prefix.
+ */
+@Component
+public class JasyptFieldCipher implements FieldCipher {
+    
+    @Value("${jasypt.encryptor.password}")
+    private String encryptionPassword;
+    
+    private StandardPBEStringEncryptor encryptor;
+    
+    @PostConstruct
+    void init() {
+        StandardPBEStringEncryptor pbeEncryptor = new StandardPBEStringEncryptor();
+        EnvironmentStringPBEConfig config = new EnvironmentStringPBEConfig();
+        config.setPassword(encryptionPassword);
+        config.setAlgorithm("PBEWithMD5AndDES");
+        pbeEncryptor.setConfig(config);
+        encryptor = pbeEncryptor;
+    }
+    
+    @Override
+    public String encrypt(String plaintext) {
+        return encryptor.encrypt(plaintext);
+    }
+    
+    @Override
+    public String decrypt(String ciphertext) {
+        return encryptor.decrypt(ciphertext);
+    }
+    
+    @Override
+    public boolean isOwnCiphertext(String ciphertext) {
+        return !ciphertext.startsWith(AesGcmFieldCipher.PREFIX);
+    }
+}
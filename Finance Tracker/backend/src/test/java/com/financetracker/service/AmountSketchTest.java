@@ -0,0 +1,109 @@
+package com.financetracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AmountSketchTest {
+    
+    private static final double[] QUANTILES = {0, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 1};
+    
+    @Test
+    void quantilesOfAUniformDistributionStayWithinTheRelativeAccuracy() {
+        double[] amounts = new double[10_000];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = 1 + i * 0.1;
+        }
+        assertQuantilesAccurate(amounts);
+    }
+    
+    @Test
+    void quantilesOfALogNormalDistributionStayWithinTheRelativeAccuracy() {
+        Random random = new Random(42);
+        double[] amounts = new double[20_000];
+        for (int i = 0; i < amounts.length; i++) {
+            // Cent amounts from a few cents to thousands
+            amounts[i] = Math.max(0.01, Math.round(Math.exp(3 + 1.5 * random.nextGaussian()) * 100) / 100.0);
+        }
+        assertQuantilesAccurate(amounts);
+    }
+    
+    @Test
+    void mergeEqualsOneSketchOverAllAmounts() {
+        AmountSketch all = new AmountSketch();
+        AmountSketch first = new AmountSketch();
+        AmountSketch second = new AmountSketch();
+        for (int i = 1; i <= 500; i++) {
+            int bin = AmountSketch.binOf(BigDecimal.valueOf(i * 1.37));
+            all.add(bin, 1);
+            (i % 3 == 0 ? first : second).add(bin, 1);
+        }
+        
+        AmountSketch merged = new AmountSketch();
+        merged.merge(second);
+        merged.merge(first);
+        
+        assertEquals(all.getCount(), merged.getCount());
+        for (double q : QUANTILES) {
+            assertEquals(all.quantile(q), merged.quantile(q), "quantile " + q);
+        }
+    }
+    
+    @Test
+    void removeUndoesAddAndMerge() {
+        AmountSketch base = new AmountSketch();
+        for (int i = 1; i <= 200; i++) {
+            base.add(AmountSketch.binOf(BigDecimal.valueOf(i)), 1);
+        }
+        AmountSketch extra = new AmountSketch();
+        extra.add(AmountSketch.binOf(new BigDecimal("5000")), 3);
+        extra.add(AmountSketch.binOf(new BigDecimal("0.05")), 2);
+        
+        AmountSketch changed = new AmountSketch();
+        changed.merge(base);
+        changed.merge(extra);
+        changed.remove(AmountSketch.binOf(new BigDecimal("5000")), 3);
+        changed.remove(AmountSketch.binOf(new BigDecimal("0.05")), 2);
+        
+        assertEquals(base.getCount(), changed.getCount());
+        for (double q : QUANTILES) {
+            assertEquals(base.quantile(q), changed.quantile(q), "quantile " + q);
+        }
+    }
+    
+    @Test
+    void removingEverythingEmptiesTheSketch() {
+        AmountSketch sketch = new AmountSketch();
+        int bin = AmountSketch.binOf(new BigDecimal("12.34"));
+        sketch.add(bin, 2);
+        
+        sketch.remove(bin, 5);
+        sketch.remove(AmountSketch.binOf(new BigDecimal("99")), 1);
+        
+        assertEquals(0, sketch.getCount());
+        assertNull(sketch.quantile(0.5));
+    }
+    
+    private static void assertQuantilesAccurate(double[] amounts) {
+        AmountSketch sketch = new AmountSketch();
+        for (double amount : amounts) {
+            sketch.add(AmountSketch.binOf(BigDecimal.valueOf(amount)), 1);
+        }
+        double[] sorted = amounts.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            double expected = sorted[(int) Math.floor(q * (sorted.length - 1))];
+            double estimate = sketch.quantile(q).doubleValue();
+            // Estimates are rounded to cents, which matters only for the smallest amounts
+            double tolerance = expected * AmountSketch.RELATIVE_ACCURACY + 0.005;
+            assertTrue(Math.abs(estimate - expected) <= tolerance,
+                    "quantile " + q + ": estimated " + estimate + " for " + expected);
+        }
+    }
+}
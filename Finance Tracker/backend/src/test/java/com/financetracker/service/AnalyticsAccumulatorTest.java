@@ -0,0 +1,67 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.AnalyticsDto;
+import com.financetracker.dto.CategoryExpenseDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AnalyticsAccumulatorTest {
+    
+    private static final LocalDate START = LocalDate.of(2024, 1, 30);
+    
+    @Test
+    void indexesSparseCategoryIdsDensely() {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator(START, START.plusDays(3));
+        accumulator.add(START, 9_000_000_000L, new BigDecimal("5.00"));
+        accumulator.add(START, 3L, new BigDecimal("5.00"));
+        accumulator.add(START.plusDays(2), 9_000_000_000L, new BigDecimal("1.5"));
+        
+        AnalyticsDto dto = accumulator.toDto(AnalyticsAccumulatorTest::row);
+        
+        assertEquals(new BigDecimal("11.50"), dto.getTotalExpenses());
+        assertEquals(new BigDecimal("2.88"), dto.getAverageDailyExpense());
+        assertEquals(List.of(
+                row(9_000_000_000L, new BigDecimal("6.50"), 2),
+                row(3L, new BigDecimal("5.00"), 1)), dto.getExpensesByCategory());
+        assertEquals(Map.of("2024-01", new BigDecimal("10.00"), "2024-02", new BigDecimal("1.50")),
+                dto.getMonthlyExpenses());
+    }
+    
+    @Test
+    void ordersEqualTotalsByCategoryId() {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator(START, START);
+        accumulator.add(START, 7L, BigDecimal.ONE);
+        accumulator.add(START, 2L, BigDecimal.ONE);
+        
+        List<CategoryExpenseDto> rows = accumulator.toDto(AnalyticsAccumulatorTest::row).getExpensesByCategory();
+        
+        assertEquals(2L, rows.get(0).getCategoryId());
+        assertEquals(7L, rows.get(1).getCategoryId());
+    }
+    
+    @Test
+    void ignoresExpensesOutsideTheRange() {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator(START, START.plusDays(1));
+        accumulator.add(START.minusDays(1), 1L, BigDecimal.TEN);
+        accumulator.add(START.plusDays(2), 1L, BigDecimal.TEN);
+        
+        assertEquals(0, accumulator.getTotalCount());
+    }
+    
+    @Test
+    void rejectsRangesTooLongToIndex() {
+        assertThrows(ArithmeticException.class,
+                () -> new AnalyticsAccumulator(LocalDate.MIN, LocalDate.MAX));
+    }
+    
+    private static CategoryExpenseDto row(Long categoryId, BigDecimal total, long count) {
+        return new CategoryExpenseDto(categoryId, null, null, total, count);
+    }
+}
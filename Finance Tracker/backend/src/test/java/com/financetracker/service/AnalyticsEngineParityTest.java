@@ -0,0 +1,122 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.AnalyticsDto;
+import com.financetracker.dto.ExpenseRequest;
+import com.financetracker.entity.ExpenseCategory;
+import com.financetracker.entity.User;
+import com.financetracker.repository.ExpenseCategoryRepository;
+import com.financetracker.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The query, rollup and entity analytics engines must return identical
+ * results for the same data and range.
+ */
+@SpringBootTest
+class AnalyticsEngineParityTest {
+    
+    private static final String USERNAME = "engine-parity-test";
+    private static final List<String> ENGINES = List.of("query", "rollup", "entity");
+    private static final LocalDate DAY = LocalDate.of(2023, 1, 30);
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+    
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername(USERNAME).orElseGet(() -> {
+            User created = new User();
+            created.setUsername(USERNAME);
+            created.setEmail(USERNAME + "@example.com");
+            created.setPassword("password");
+            return userRepository.save(created);
+        });
+    }
+    
+    @AfterEach
+    void restoreEngine() {
+        ReflectionTestUtils.setField(analyticsService, "analyticsEngine", "query");
+    }
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void enginesAgreeOnEveryRange() {
+        ExpenseCategory groceries = category("Parity Groceries");
+        ExpenseCategory rent = category("Parity Rent");
+        ExpenseCategory fuel = category("Parity Fuel");
+        
+        // Spans a month boundary; category totals are distinct so the ordering is fixed
+        expenseService.createExpense(request(groceries, "12.35", DAY));
+        expenseService.createExpense(request(groceries, "7.10", DAY));
+        expenseService.createExpense(request(fuel, "40.00", DAY.plusDays(1)));
+        expenseService.createExpense(request(rent, "900.00", DAY.plusDays(2)));
+        expenseService.createExpense(request(groceries, "3.33", DAY.plusDays(5)));
+        expenseService.createExpense(request(fuel, "0.01", DAY.plusDays(40)));
+        
+        assertEnginesAgree(DAY.minusDays(3), DAY.plusDays(45));
+        assertEnginesAgree(DAY.plusDays(1), DAY.plusDays(5));
+        // Single day with and without expenses
+        assertEnginesAgree(DAY, DAY);
+        assertEnginesAgree(DAY.plusDays(3), DAY.plusDays(3));
+        // Empty range
+        assertEnginesAgree(DAY.minusDays(60), DAY.minusDays(31));
+    }
+    
+    private void assertEnginesAgree(LocalDate startDate, LocalDate endDate) {
+        AnalyticsDto expected = compute("query", startDate, endDate);
+        for (String engine : ENGINES) {
+            assertEquals(expected, compute(engine, startDate, endDate),
+                    engine + " engine differs for " + startDate + ".." + endDate);
+        }
+    }
+    
+    private AnalyticsDto compute(String engine, LocalDate startDate, LocalDate endDate) {
+        ReflectionTestUtils.setField(analyticsService, "analyticsEngine", engine);
+        // Bypasses the analytics cache, which does not key on the engine
+        return analyticsService.computeAnalytics(user.getId(), startDate, endDate, AnalyticsSection.ALL);
+    }
+    
+    private ExpenseCategory category(String name) {
+        return categoryRepository.findAll().stream()
+                .filter(category -> name.equals(category.getName()))
+                .findFirst()
+                .orElseGet(() -> {
+                    ExpenseCategory category = new ExpenseCategory();
+                    category.setName(name);
+                    category.setIcon(name.substring(name.indexOf(' ') + 1).toLowerCase());
+                    return categoryRepository.save(category);
+                });
+    }
+    
+    private static ExpenseRequest request(ExpenseCategory category, String amount, LocalDate date) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setCategoryId(category.getId());
+        request.setAmount(new BigDecimal(amount));
+        request.setExpenseDate(date);
+        request.setDescription("Parity test");
+        return request;
+    }
+}
@@ -0,0 +1,92 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.ExpenseRequest;
+import com.financetracker.entity.ExpenseCategory;
+import com.financetracker.entity.User;
+import com.financetracker.repository.ExpenseCategoryRepository;
+import com.financetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class AnomalyDetectorTest {
+    
+    private static final String USERNAME = "anomaly-detector-test";
+    
+    @Autowired
+    private AnomalyDetector anomalyDetector;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+    
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername(USERNAME).orElseGet(() -> {
+            User created = new User();
+            created.setUsername(USERNAME);
+            created.setEmail(USERNAME + "@example.com");
+            created.setPassword("password");
+            return userRepository.save(created);
+        });
+    }
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void statisticsLoadWhileWritesKeepCommitting() throws InterruptedException {
+        ExpenseCategory category = new ExpenseCategory();
+        category.setName("Anomaly Coffee");
+        category.setIcon("coffee");
+        Long categoryId = categoryRepository.save(category).getId();
+        LocalDate day = LocalDate.now().minusDays(20);
+        
+        // Every write queues or races the first load; the statistics must still end up complete
+        for (int i = 0; i < 30; i++) {
+            expenseService.createExpense(request(categoryId, i % 2 == 0 ? "4.00" : "5.00", day.plusDays(i % 10)));
+        }
+        
+        AnomalyDetector.Assessment assessment = awaitScored(categoryId, day);
+        assertNotNull(assessment.score());
+        assertEquals(AnomalyDetector.AMOUNT, anomalyDetector.assess(user.getId(), categoryId, day,
+                new BigDecimal("400.00")).reasons());
+        assertNull(anomalyDetector.assess(user.getId(), categoryId, day, new BigDecimal("4.50")).reasons());
+    }
+    
+    private AnomalyDetector.Assessment awaitScored(Long categoryId, LocalDate day) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            AnomalyDetector.Assessment assessment = anomalyDetector.assess(user.getId(), categoryId, day,
+                    new BigDecimal("4.50"));
+            if (assessment.score() != null) {
+                return assessment;
+            }
+            Thread.sleep(100);
+        }
+        return anomalyDetector.assess(user.getId(), categoryId, day, new BigDecimal("4.50"));
+    }
+    
+    private static ExpenseRequest request(Long categoryId, String amount, LocalDate date) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setCategoryId(categoryId);
+        request.setAmount(new BigDecimal(amount));
+        request.setExpenseDate(date);
+        request.setDescription("Anomaly test");
+        return request;
+    }
+}
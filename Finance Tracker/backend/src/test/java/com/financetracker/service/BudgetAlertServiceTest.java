@@ -0,0 +1,228 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.BudgetAlertDto;
+import com.financetracker.dto.BudgetRequest;
+import com.financetracker.dto.ExpenseRequest;
+import com.financetracker.entity.ExpenseCategory;
+import com.financetracker.entity.User;
+import com.financetracker.repository.ExpenseCategoryRepository;
+import com.financetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Alerts are raised once per budget, period and threshold, producers wait
+ * on a full queue, and a failing sink delays alerts without losing them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget-alerts;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "budget.alerts.sink=memory",
+        "budget.alerts.queue-capacity=4",
+        "budget.alerts.retry.max-attempts=3",
+        "budget.alerts.retry.initial-backoff-ms=10",
+        "budget.alerts.dead-letter.redrive-interval-ms=300"
+})
+class BudgetAlertServiceTest {
+    
+    private static final String USERNAME = "budget-alert-test";
+    private static final LocalDate TODAY = LocalDate.now();
+    
+    @Autowired
+    private BudgetAlertService budgetAlertService;
+    
+    @Autowired
+    private BudgetService budgetService;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @SpyBean
+    private InMemoryBudgetAlertSink sink;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+    
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername(USERNAME).orElseGet(() -> {
+            User created = new User();
+            created.setUsername(USERNAME);
+            created.setEmail(USERNAME + "@example.com");
+            created.setPassword("password");
+            return userRepository.save(created);
+        });
+        sink.clear();
+    }
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void raisesEachThresholdOnce() {
+        ExpenseCategory category = categoryWithBudget("Alert Dedup", "100.00");
+        
+        expenseService.createExpense(request(category, "85.00"));
+        awaitAlerts(category, 1);
+        expenseService.createExpense(request(category, "5.00"));
+        expenseService.createExpense(request(category, "15.00"));
+        awaitAlerts(category, 2);
+        // Re-checking the same bucket raises nothing new
+        budgetAlertService.onExpenseChanged(event(category, 1));
+        expenseService.createExpense(request(category, "1.00"));
+        awaitIdle();
+        
+        List<BudgetAlertDto> alerts = alerts(category);
+        assertEquals(2, alerts.size());
+        assertEquals(List.of(80, 100), alerts.stream().map(BudgetAlertDto::getThreshold).sorted().toList());
+    }
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void blocksProducersWhileTheQueueIsFull() throws InterruptedException {
+        ExpenseCategory category = categoryWithBudget("Alert Backpressure", "100.00");
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            delivering.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(sink).deliver(anyList());
+        
+        // Keep the consumer busy inside the sink, then queue more checks than fit
+        expenseService.createExpense(request(category, "90.00"));
+        assertTrue(delivering.await(10, TimeUnit.SECONDS));
+        Thread producer = new Thread(() -> budgetAlertService.onExpenseChanged(event(category, 7)));
+        producer.start();
+        producer.join(300);
+        
+        assertTrue(producer.isAlive());
+        assertEquals(4, budgetAlertService.getPendingChecks());
+        
+        release.countDown();
+        producer.join(10_000);
+        assertFalse(producer.isAlive());
+        awaitIdle();
+        assertEquals(1, alerts(category).size());
+    }
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void retriesAFailingSink() {
+        ExpenseCategory category = categoryWithBudget("Alert Retry", "100.00");
+        doThrow(new RuntimeException("sink down"))
+                .doThrow(new RuntimeException("sink down"))
+                .doCallRealMethod()
+                .when(sink).deliver(anyList());
+        
+        expenseService.createExpense(request(category, "100.00"));
+        
+        awaitAlerts(category, 2);
+        awaitIdle();
+        assertEquals(2, alerts(category).size());
+    }
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void deadLettersAndRedrivesABatchThatKeepsFailing() {
+        ExpenseCategory category = categoryWithBudget("Alert Dead Letter", "100.00");
+        doThrow(new RuntimeException("sink down")).when(sink).deliver(anyList());
+        
+        expenseService.createExpense(request(category, "80.00"));
+        await(() -> budgetAlertService.getDeadLetterChecks() > 0);
+        assertTrue(alerts(category).isEmpty());
+        
+        doCallRealMethod().when(sink).deliver(anyList());
+        awaitAlerts(category, 1);
+        await(() -> budgetAlertService.getDeadLetterChecks() == 0);
+        assertEquals(1, alerts(category).size());
+    }
+    
+    private ExpenseCategory categoryWithBudget(String name, String limit) {
+        ExpenseCategory category = new ExpenseCategory();
+        category.setName(name);
+        category = categoryRepository.save(category);
+        BudgetRequest budget = new BudgetRequest();
+        budget.setCategoryId(category.getId());
+        budget.setAmount(new BigDecimal(limit));
+        budget.setPeriod("MONTHLY");
+        budget.setStartDate(TODAY.withDayOfMonth(1));
+        budgetService.createBudget(budget);
+        return category;
+    }
+    
+    private ExpenseChangedEvent event(ExpenseCategory category, int days) {
+        List<ExpenseChangedEvent.CategoryDay> categoryDays = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            categoryDays.add(new ExpenseChangedEvent.CategoryDay(category.getId(), TODAY.minusDays(i), BigDecimal.ZERO));
+        }
+        return new ExpenseChangedEvent(user.getId(), ExpenseChangedEvent.Type.UPDATED, List.of(), categoryDays, List.of());
+    }
+    
+    private List<BudgetAlertDto> alerts(ExpenseCategory category) {
+        return sink.getAlerts().stream()
+                .filter(alert -> alert.getCategoryId().equals(category.getId()))
+                .toList();
+    }
+    
+    private void awaitAlerts(ExpenseCategory category, int count) {
+        await(() -> alerts(category).size() >= count);
+    }
+    
+    // The queue is empty and the consumer has finished the batch it took
+    private void awaitIdle() {
+        await(() -> budgetAlertService.getPendingChecks() == 0);
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        await(() -> budgetAlertService.getPendingChecks() == 0);
+    }
+    
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 10 seconds");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError("Interrupted while waiting", e);
+            }
+        }
+    }
+    
+    private static ExpenseRequest request(ExpenseCategory category, String amount) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setCategoryId(category.getId());
+        request.setAmount(new BigDecimal(amount));
+        request.setExpenseDate(TODAY);
+        request.setDescription("Budget alert test");
+        return request;
+    }
+}
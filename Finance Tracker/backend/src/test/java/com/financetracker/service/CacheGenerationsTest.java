@@ -0,0 +1,69 @@
+package com.financetracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CacheGenerationsTest {
+    
+    private final CacheGenerations<Long> generations = new CacheGenerations<>();
+    private final Cache<Long, String> cache = Caffeine.newBuilder().build();
+    
+    @Test
+    void cachesALoadWithoutConcurrentWrites() {
+        assertEquals("loaded", generations.load(1L, cache, () -> "loaded"));
+        assertEquals("loaded", cache.getIfPresent(1L));
+    }
+    
+    @Test
+    void returnsButDoesNotCacheALoadOverlappingAWrite() {
+        String value = generations.load(1L, cache, () -> {
+            generations.bump(1L);
+            return "stale";
+        });
+        
+        assertEquals("stale", value);
+        assertNull(cache.getIfPresent(1L));
+    }
+    
+    @Test
+    void bumpAffectsOnlyItsKeyAndBumpAllEveryKey() {
+        generations.load(2L, cache, () -> {
+            generations.bump(3L);
+            return "other key";
+        });
+        generations.load(4L, cache, () -> {
+            generations.bumpAll();
+            return "all keys";
+        });
+        
+        assertEquals("other key", cache.getIfPresent(2L));
+        assertNull(cache.getIfPresent(4L));
+    }
+    
+    @Test
+    void unstoresWhenAWriteLandsDuringTheStore() {
+        String value = generations.load(5L, () -> "raced", loaded -> {
+            cache.put(5L, loaded);
+            generations.bump(5L);
+            return loaded;
+        }, loaded -> cache.invalidate(5L));
+        
+        assertEquals("raced", value);
+        assertNull(cache.getIfPresent(5L));
+    }
+    
+    @Test
+    void anEntryCachedByAConcurrentLoadWins() {
+        String value = generations.load(6L, cache, () -> {
+            cache.put(6L, "first");
+            return "second";
+        });
+        
+        assertEquals("first", value);
+        assertEquals("first", cache.getIfPresent(6L));
+    }
+}
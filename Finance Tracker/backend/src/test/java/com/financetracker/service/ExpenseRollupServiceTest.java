@@ -0,0 +1,123 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.ExpenseDto;
+import com.financetracker.dto.ExpenseRequest;
+import com.financetracker.entity.ExpenseCategory;
+import com.financetracker.entity.User;
+import com.financetracker.repository.ExpenseCategoryRepository;
+import com.financetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every expense write must leave the daily rollups equal to the buckets
+ * recomputed from the expenses table.
+ */
+@SpringBootTest
+class ExpenseRollupServiceTest {
+    
+    private static final String USERNAME = "rollup-test";
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private ExpenseRollupService rollupService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+    
+    private User user;
+    private ExpenseCategory food;
+    private ExpenseCategory travel;
+    
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername(USERNAME).orElseGet(() -> {
+            User created = new User();
+            created.setUsername(USERNAME);
+            created.setEmail(USERNAME + "@example.com");
+            created.setPassword("password");
+            return userRepository.save(created);
+        });
+        food = category("Rollup Food");
+        travel = category("Rollup Travel");
+    }
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void rollupsFollowCreateUpdateAndDelete() {
+        ExpenseDto lunch = expenseService.createExpense(request(food, "12.50", DAY));
+        ExpenseDto dinner = expenseService.createExpense(request(food, "30.00", DAY));
+        ExpenseDto train = expenseService.createExpense(request(travel, "45.10", DAY.plusDays(1)));
+        assertConsistent();
+        
+        // Amount change within the same bucket
+        expenseService.updateExpense(lunch.getId(), request(food, "14.00", DAY));
+        assertConsistent();
+        
+        // Move to another day
+        expenseService.updateExpense(dinner.getId(), request(food, "30.00", DAY.plusDays(2)));
+        assertConsistent();
+        
+        // Move to another category, emptying the old bucket
+        expenseService.updateExpense(train.getId(), request(food, "45.10", DAY.plusDays(1)));
+        assertConsistent();
+        
+        // Move day and category at once
+        expenseService.updateExpense(lunch.getId(), request(travel, "9.99", DAY.minusDays(1)));
+        assertConsistent();
+        
+        expenseService.deleteExpense(dinner.getId());
+        assertConsistent();
+        
+        expenseService.deleteExpense(train.getId());
+        expenseService.deleteExpense(lunch.getId());
+        assertConsistent();
+    }
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void rebuildRestoresConsistency() {
+        expenseService.createExpense(request(travel, "5.00", DAY.plusDays(5)));
+        rollupService.rebuildAll();
+        assertConsistent();
+    }
+    
+    private void assertConsistent() {
+        assertEquals(List.of(), rollupService.checkConsistency(user.getId()));
+    }
+    
+    private ExpenseCategory category(String name) {
+        return categoryRepository.findAll().stream()
+                .filter(category -> name.equals(category.getName()))
+                .findFirst()
+                .orElseGet(() -> {
+                    ExpenseCategory category = new ExpenseCategory();
+                    category.setName(name);
+                    return categoryRepository.save(category);
+                });
+    }
+    
+    private static ExpenseRequest request(ExpenseCategory category, String amount, LocalDate date) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setCategoryId(category.getId());
+        request.setAmount(new BigDecimal(amount));
+        request.setExpenseDate(date);
+        request.setDescription("Rollup test");
+        return request;
+    }
+}
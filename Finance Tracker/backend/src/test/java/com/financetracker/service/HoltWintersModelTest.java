@@ -0,0 +1,107 @@
+package com.financetracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HoltWintersModelTest {
+    
+    // A Monday, so day i of a series falls on weekday i % 7
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final double[] WEEKLY = {-20, -10, 0, 5, 10, 40, -25};
+    
+    @Test
+    void shortSeriesGetALevelOnlyModel() {
+        double[] values = {30, 34, 28, 31, 33, 29, 30, 32, 31, 30};
+        
+        HoltWintersModel model = HoltWintersModel.fit(START, values);
+        
+        assertEquals(START.plusDays(values.length - 1), model.getFittedThrough());
+        assertEquals(0, model.getBeta());
+        assertEquals(0, model.getGamma());
+        assertEquals(0, model.getTrend());
+        assertArrayEquals(new double[HoltWintersModel.SEASON], model.getSeasonal());
+        // Without trend or season every day gets the same forecast, near the series' values
+        double next = model.forecast(model.getFittedThrough().plusDays(1));
+        assertEquals(next, model.forecast(model.getFittedThrough().plusDays(30)), 1e-9);
+        assertTrue(next > 28 && next < 34, "forecast " + next);
+    }
+    
+    @Test
+    void singleDayFitsAndForecastsThatDay() {
+        HoltWintersModel model = HoltWintersModel.fit(START, new double[]{12.5});
+        
+        assertEquals(START, model.getFittedThrough());
+        assertEquals(12.5, model.forecast(START.plusDays(7)), 1e-9);
+        assertEquals(0, model.getResidualStdDev());
+    }
+    
+    @Test
+    void recoversAWeeklySeason() {
+        double[] values = new double[12 * HoltWintersModel.SEASON];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 100 + WEEKLY[i % HoltWintersModel.SEASON];
+        }
+        
+        HoltWintersModel model = HoltWintersModel.fit(START, values);
+        
+        LocalDate last = model.getFittedThrough();
+        for (int h = 1; h <= 14; h++) {
+            LocalDate day = last.plusDays(h);
+            double expected = 100 + WEEKLY[day.getDayOfWeek().getValue() - 1];
+            assertEquals(expected, model.forecast(day), 1.0, "forecast for " + day);
+        }
+        double[] seasonal = model.getSeasonal();
+        assertEquals(40, seasonal[DayOfWeek.SATURDAY.getValue() - 1], 1.0);
+        assertEquals(-25, seasonal[DayOfWeek.SUNDAY.getValue() - 1], 1.0);
+        assertTrue(model.getResidualStdDev() < 1.0, "residual " + model.getResidualStdDev());
+    }
+    
+    @Test
+    void updateAdvancesOneDayAndMovesTheForecast() {
+        double[] values = new double[4 * HoltWintersModel.SEASON];
+        Arrays.fill(values, 50);
+        HoltWintersModel model = HoltWintersModel.fit(START, values);
+        LocalDate last = model.getFittedThrough();
+        double before = model.forecast(last.plusDays(2));
+        
+        model.update(500);
+        
+        assertEquals(last.plusDays(1), model.getFittedThrough());
+        assertTrue(model.forecast(last.plusDays(2)) > before);
+    }
+    
+    @Test
+    void forecastRejectsDaysNotAfterTheFit() {
+        HoltWintersModel model = HoltWintersModel.fit(START, new double[]{10, 11, 12});
+        LocalDate last = model.getFittedThrough();
+        
+        assertThrows(IllegalArgumentException.class, () -> model.forecast(last));
+        assertThrows(IllegalArgumentException.class, () -> model.forecast(last.minusDays(5)));
+        model.update(13);
+        assertThrows(IllegalArgumentException.class, () -> model.forecast(last.plusDays(1)));
+    }
+    
+    @Test
+    void dampedTrendLevelsOffOverLongHorizons() {
+        double[] season = new double[HoltWintersModel.SEASON];
+        HoltWintersModel model = new HoltWintersModel(0.1, 0.05, 0.1, 100, 2, season, 0, START);
+        
+        // The trend adds at most trend * DAMPING / (1 - DAMPING) however far ahead
+        double limit = 100 + 2 * HoltWintersModel.DAMPING / (1 - HoltWintersModel.DAMPING);
+        double month = model.forecast(START.plusDays(30));
+        double year = model.forecast(START.plusDays(365));
+        assertTrue(month > model.forecast(START.plusDays(1)));
+        assertTrue(year > month && year < limit, "forecast " + year + " limit " + limit);
+        
+        HoltWintersModel falling = new HoltWintersModel(0.1, 0.05, 0.1, 10, -5, season, 0, START);
+        assertEquals(0, falling.forecast(START.plusDays(60)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.financetracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class KeywordMatcherTest {
+    
+    @Test
+    void overlappingPatternsPickTheLongest() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of(
+                new KeywordMatcher.Rule("he", 1L),
+                new KeywordMatcher.Rule("she", 2L),
+                new KeywordMatcher.Rule("hers", 3L)));
+        
+        // "she", "he" and "hers" all occur in "ushers"
+        assertEquals(new KeywordMatcher.Match("hers", 3L), matcher.match("ushers"));
+        assertEquals(new KeywordMatcher.Match("she", 2L), matcher.match("ushe"));
+        assertEquals(new KeywordMatcher.Match("he", 1L), matcher.match("the"));
+    }
+    
+    @Test
+    void longerPatternWinsOverEarlierRule() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of(
+                new KeywordMatcher.Rule("coffee", 1L),
+                new KeywordMatcher.Rule("coffee shop", 2L)));
+        
+        assertEquals(2L, matcher.match("Coffee Shop Downtown").categoryId());
+        assertEquals(1L, matcher.match("coffee beans").categoryId());
+    }
+    
+    @Test
+    void earlierRuleWinsAmongEquallyLongPatterns() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of(
+                new KeywordMatcher.Rule("taxi", 1L),
+                new KeywordMatcher.Rule("uber", 2L)));
+        
+        assertEquals(1L, matcher.match("uber taxi").categoryId());
+        assertEquals(1L, matcher.match("uber", "taxi").categoryId());
+    }
+    
+    @Test
+    void failLinksFindPatternsInsideAbandonedPrefixes() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of(
+                new KeywordMatcher.Rule("abx", 1L),
+                new KeywordMatcher.Rule("bc", 2L),
+                new KeywordMatcher.Rule("abcd", 3L)));
+        
+        // After "ab" the 'c' only continues through the fail link to "b"
+        assertEquals(new KeywordMatcher.Match("bc", 2L), matcher.match("zabc"));
+        // "abc" leads towards "abcd", which fails on 'e' but still contains "bc"
+        assertEquals(new KeywordMatcher.Match("bc", 2L), matcher.match("abce"));
+        assertEquals(new KeywordMatcher.Match("abcd", 3L), matcher.match("aabcd"));
+    }
+    
+    @Test
+    void matchingIsCaseInsensitiveAndSkipsNullTexts() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of(new KeywordMatcher.Rule("starbucks", 7L)));
+        
+        assertEquals(7L, matcher.match(null, "STARBUCKS #123").categoryId());
+        assertNull(matcher.match("Costa", null));
+        assertNull(KeywordMatcher.empty().match("starbucks"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.ExpenseRequest;
+import com.financetracker.entity.ExpenseCategory;
+import com.financetracker.entity.User;
+import com.financetracker.repository.ExpenseCategoryRepository;
+import com.financetracker.repository.ExpenseRepository;
+import com.financetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class LuceneExpenseSearchBackendTest {
+    
+    private static final String USERNAME = "lucene-backend-test";
+    
+    @Autowired
+    private LuceneExpenseSearchBackend searchBackend;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+    
+    private User user;
+    private ExpenseCategory category;
+    
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername(USERNAME).orElseGet(() -> {
+            User created = new User();
+            created.setUsername(USERNAME);
+            created.setEmail(USERNAME + "@example.com");
+            created.setPassword("password");
+            return userRepository.save(created);
+        });
+        category = categoryRepository.findAll().stream().findFirst().orElseGet(() -> {
+            ExpenseCategory created = new ExpenseCategory();
+            created.setName("Search Test");
+            created.setIcon("search");
+            return categoryRepository.save(created);
+        });
+    }
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void rebuildDropsDocumentsOfMissingExpensesAndKeepsTheRest() {
+        Long kept = expenseService.createExpense(request("rebuild keeper")).getId();
+        Long removed = expenseService.createExpense(request("rebuild orphan")).getId();
+        assertEquals(List.of(removed), search("orphan"));
+        
+        // Deleted behind the index's back, as if the event had been lost
+        expenseRepository.deleteById(removed);
+        assertEquals(List.of(removed), search("orphan"));
+        
+        searchBackend.rebuild();
+        assertEquals(List.of(), search("orphan"));
+        assertEquals(List.of(kept), search("keeper"));
+    }
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void needsRebuildUnlessClosedCleanly() throws IOException {
+        Long id = expenseService.createExpense(request("clean close")).getId();
+        
+        // Opened without a clean-close marker while expenses exist
+        assertTrue(searchBackend.needsRebuild());
+        
+        searchBackend.close();
+        searchBackend.open();
+        assertFalse(searchBackend.needsRebuild());
+        assertEquals(List.of(id), search("clean"));
+    }
+    
+    private List<Long> search(String text) {
+        ExpenseSearchQuery query = new ExpenseSearchQuery(text, null, null, null, null, null);
+        return searchBackend.search(user.getId(), query, 0, 10).expenseIds();
+    }
+    
+    private ExpenseRequest request(String description) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setCategoryId(category.getId());
+        request.setAmount(new BigDecimal("9.99"));
+        request.setExpenseDate(LocalDate.of(2023, 3, 1));
+        request.setDescription(description);
+        return request;
+    }
+}
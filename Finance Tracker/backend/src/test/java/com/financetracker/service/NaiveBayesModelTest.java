@@ -0,0 +1,82 @@
+package com.financetracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NaiveBayesModelTest {
+    
+    @Test
+    void predictsTheCategoryOfSimilarText() {
+        NaiveBayesModel model = trainedModel();
+        
+        List<NaiveBayesModel.Prediction> predictions = model.predict("Lunch at the cafe", null);
+        assertEquals(1L, predictions.get(0).categoryId());
+        assertEquals(1.0, predictions.stream().mapToDouble(NaiveBayesModel.Prediction::probability).sum(), 1e-9);
+        assertTrue(predictions.get(0).probability() > predictions.get(1).probability());
+        
+        assertEquals(2L, model.predict("Train ticket", "Central Station").get(0).categoryId());
+    }
+    
+    @Test
+    void unknownWordsPredictNothing() {
+        assertEquals(List.of(), trainedModel().predict("zzz qqq", "42"));
+        assertEquals(List.of(), new NaiveBayesModel().predict("cafe", null));
+    }
+    
+    @Test
+    void removeUndoesAdd() {
+        NaiveBayesModel model = trainedModel();
+        List<NaiveBayesModel.Prediction> before = model.predict("coffee ticket", null);
+        
+        model.add(2L, "Coffee on the train", "Station kiosk");
+        model.add(3L, "Coffee subscription", null);
+        model.remove(2L, "Coffee on the train", "Station kiosk");
+        model.remove(3L, "Coffee subscription", null);
+        
+        assertEquals(before, model.predict("coffee ticket", null));
+        assertEquals(5, model.size());
+        // Words only the removed texts used are forgotten
+        assertEquals(List.of(), model.predict("subscription kiosk", null));
+    }
+    
+    @Test
+    void removingTheLastExpenseOfACategoryDropsIt() {
+        NaiveBayesModel model = new NaiveBayesModel();
+        model.add(1L, "Cafe latte", null);
+        model.add(2L, "Cafe rent", null);
+        
+        model.remove(2L, "Cafe rent", null);
+        
+        List<NaiveBayesModel.Prediction> predictions = model.predict("cafe", null);
+        assertEquals(1, predictions.size());
+        assertEquals(1L, predictions.get(0).categoryId());
+    }
+    
+    @Test
+    void removingUnseenTextIsIgnored() {
+        NaiveBayesModel model = trainedModel();
+        
+        model.remove(99L, "Never added", null);
+        
+        assertEquals(5, model.size());
+    }
+    
+    @Test
+    void tokenizeKeepsWordsOfTwoOrMoreLetters() {
+        assertEquals(List.of("paid", "at", "shop"), NaiveBayesModel.tokenize("Paid 12.50 at SHOP #7 x", null));
+    }
+    
+    private static NaiveBayesModel trainedModel() {
+        NaiveBayesModel model = new NaiveBayesModel();
+        model.add(1L, "Coffee at the cafe", null);
+        model.add(1L, "Lunch", "Corner cafe");
+        model.add(1L, "Sandwich and coffee", null);
+        model.add(2L, "Train ticket", "Central station");
+        model.add(2L, "Bus ticket", null);
+        return model;
+    }
+}
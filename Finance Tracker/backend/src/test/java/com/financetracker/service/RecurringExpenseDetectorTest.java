@@ -0,0 +1,122 @@
+package com.financetracker.service;
+
+import com.financetracker.entity.Expense;
+import com.financetracker.entity.ExpenseCategory;
+import com.financetracker.entity.RecurringWatermark;
+import com.financetracker.entity.User;
+import com.financetracker.repository.ExpenseCategoryRepository;
+import com.financetracker.repository.ExpenseRepository;
+import com.financetracker.repository.RecurringWatermarkRepository;
+import com.financetracker.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RecurringExpenseDetectorTest {
+    
+    private static final String USERNAME = "recurring-detector-test";
+    
+    @Autowired
+    private RecurringExpenseDetector detector;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private RecurringWatermarkRepository watermarkRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private User user;
+    private ExpenseCategory category;
+    
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername(USERNAME).orElseGet(() -> {
+            User created = new User();
+            created.setUsername(USERNAME);
+            created.setEmail(USERNAME + "@example.com");
+            created.setPassword("password");
+            return userRepository.save(created);
+        });
+        category = categoryRepository.findAll().stream().findFirst().orElseGet(() -> {
+            ExpenseCategory created = new ExpenseCategory();
+            created.setName("Recurring Test");
+            created.setIcon("repeat");
+            return categoryRepository.save(created);
+        });
+        ReflectionTestUtils.setField(detector, "settleSeconds", 0L);
+    }
+    
+    @AfterEach
+    void restoreSettleSeconds() {
+        ReflectionTestUtils.setField(detector, "settleSeconds", 60L);
+    }
+    
+    @Test
+    void watermarkStaysBelowAnInsertStillCommitting() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> slow = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    Long id = expenseRepository.save(expense("NETFLIX.COM", LocalDate.of(2024, 1, 5))).getId();
+                    detector.trackInserts(List.of(id));
+                    inserted.countDown();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return id;
+                }));
+        assertTrue(inserted.await(30, TimeUnit.SECONDS));
+        
+        // Commits first although its id is larger
+        Long fast = expenseRepository.save(expense("NETFLIX.COM", LocalDate.of(2024, 2, 5))).getId();
+        detector.runAll();
+        assertTrue(watermark() < fast, "watermark passed an expense behind an open insert");
+        
+        release.countDown();
+        Long slowId = slow.get(30, TimeUnit.SECONDS);
+        assertTrue(slowId < fast);
+        detector.runAll();
+        assertEquals(fast, watermark());
+    }
+    
+    private long watermark() {
+        return watermarkRepository.findById(user.getId()).map(RecurringWatermark::getLastExpenseId).orElse(0L);
+    }
+    
+    private Expense expense(String description, LocalDate date) {
+        Expense expense = new Expense();
+        expense.setUser(user);
+        expense.setCategory(category);
+        expense.setAmount(new BigDecimal("15.49"));
+        expense.setDescription(description);
+        expense.setExpenseDate(date);
+        return expense;
+    }
+}
@@ -0,0 +1,106 @@
+package com.financetracker.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AesGcmFieldCipherTest {
+    
+    private AesGcmFieldCipher cipher;
+    
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        cipher = cipher("TestEncryptionPassword", "");
+    }
+    
+    @Test
+    void roundTrips() {
+        for (String plaintext : new String[]{"Visa 4242", "x", "Carte bancaire été €", "a".repeat(5000)}) {
+            String ciphertext = cipher.encrypt(plaintext);
+            assertTrue(ciphertext.startsWith(AesGcmFieldCipher.PREFIX));
+            assertTrue(cipher.isOwnCiphertext(ciphertext));
+            assertEquals(plaintext, cipher.decrypt(ciphertext));
+        }
+    }
+    
+    @Test
+    void usesAFreshIvPerValue() {
+        assertNotEquals(cipher.encrypt("Visa 4242"), cipher.encrypt("Visa 4242"));
+    }
+    
+    @Test
+    void acceptsAConfiguredKey() throws GeneralSecurityException {
+        String key = Base64.getEncoder().encodeToString(new byte[32]);
+        AesGcmFieldCipher configured = cipher("unused", key);
+        assertEquals("Visa 4242", configured.decrypt(configured.encrypt("Visa 4242")));
+        assertThrows(RuntimeException.class, () -> cipher.decrypt(configured.encrypt("Visa 4242")));
+    }
+    
+    @Test
+    void rejectsTamperedCiphertext() {
+        byte[] data = payload(cipher.encrypt("Visa 4242"));
+        // The first byte after the 12-byte IV is ciphertext
+        data[12] ^= 1;
+        assertThrows(RuntimeException.class, () -> cipher.decrypt(encode(data)));
+    }
+    
+    @Test
+    void rejectsTamperedTag() {
+        byte[] data = payload(cipher.encrypt("Visa 4242"));
+        data[data.length - 1] ^= 1;
+        assertThrows(RuntimeException.class, () -> cipher.decrypt(encode(data)));
+    }
+    
+    @Test
+    void rejectsTamperedIv() {
+        byte[] data = payload(cipher.encrypt("Visa 4242"));
+        data[0] ^= 1;
+        assertThrows(RuntimeException.class, () -> cipher.decrypt(encode(data)));
+    }
+    
+    @Test
+    void rejectsTruncatedAndMalformedValues() {
+        byte[] data = payload(cipher.encrypt("Visa 4242"));
+        byte[] truncated = new byte[data.length - 4];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        assertThrows(RuntimeException.class, () -> cipher.decrypt(encode(truncated)));
+        assertThrows(RuntimeException.class, () -> cipher.decrypt(AesGcmFieldCipher.PREFIX + "not base64!"));
+    }
+    
+    @Test
+    void rejectsValuesFromAnotherPassword() throws GeneralSecurityException {
+        AesGcmFieldCipher other = cipher("AnotherPassword", "");
+        assertThrows(RuntimeException.class, () -> cipher.decrypt(other.encrypt("Visa 4242")));
+    }
+    
+    @Test
+    void doesNotClaimLegacyValues() {
+        assertFalse(cipher.isOwnCiphertext("3Fh2nTq9Zk1bX0c="));
+    }
+    
+    static AesGcmFieldCipher cipher(String password, String configuredKey) throws GeneralSecurityException {
+        AesGcmFieldCipher cipher = new AesGcmFieldCipher();
+        ReflectionTestUtils.setField(cipher, "configuredKey", configuredKey);
+        ReflectionTestUtils.setField(cipher, "encryptionPassword", password);
+        ReflectionTestUtils.setField(cipher, "keySalt", "expense-tracker-field-key");
+        cipher.init();
+        return cipher;
+    }
+    
+    private static byte[] payload(String ciphertext) {
+        return Base64.getDecoder().decode(ciphertext.substring(AesGcmFieldCipher.PREFIX.length()));
+    }
+    
+    private static String encode(byte[] data) {
+        return AesGcmFieldCipher.PREFIX + Base64.getEncoder().encodeToString(data);
+    }
+}
@@ -0,0 +1,81 @@
+package com.financetracker.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.GeneralSecurityException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EncryptionUtilTest {
+    
+    private static final String PASSWORD = "TestEncryptionPassword";
+    
+    private JasyptFieldCipher jasypt;
+    private EncryptionUtil encryptionUtil;
+    
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        jasypt = new JasyptFieldCipher();
+        ReflectionTestUtils.setField(jasypt, "encryptionPassword", PASSWORD);
+        jasypt.init();
+        encryptionUtil = encryptionUtil("aes-gcm");
+    }
+    
+    @Test
+    void writesAesGcmByDefault() {
+        String stored = encryptionUtil.encryptPaymentMethod("Visa 4242");
+        assertTrue(stored.startsWith(AesGcmFieldCipher.PREFIX));
+        assertFalse(encryptionUtil.needsReencryption(stored));
+        assertEquals("Visa 4242", encryptionUtil.decryptPaymentMethod(stored));
+    }
+    
+    @Test
+    void readsLegacyJasyptValues() {
+        String legacy = jasypt.encrypt("Mastercard 5555");
+        assertFalse(legacy.startsWith(AesGcmFieldCipher.PREFIX));
+        assertEquals("Mastercard 5555", encryptionUtil.decryptPaymentMethod(legacy));
+        assertTrue(encryptionUtil.needsReencryption(legacy));
+    }
+    
+    @Test
+    void legacyModeWritesJasyptAndStillReadsAesGcm() throws GeneralSecurityException {
+        String aesGcm = encryptionUtil.encrypt("Visa 4242");
+        EncryptionUtil legacyMode = encryptionUtil("jasypt");
+        String stored = legacyMode.encrypt("Amex 3782");
+        assertFalse(stored.startsWith(AesGcmFieldCipher.PREFIX));
+        assertEquals("Amex 3782", legacyMode.decrypt(stored));
+        assertEquals("Visa 4242", legacyMode.decrypt(aesGcm));
+        assertTrue(legacyMode.needsReencryption(aesGcm));
+    }
+    
+    @Test
+    void passesNullAndEmptyThrough() {
+        assertNull(encryptionUtil.encrypt(null));
+        assertEquals("", encryptionUtil.encrypt(""));
+        assertNull(encryptionUtil.decrypt(null));
+        assertFalse(encryptionUtil.needsReencryption(null));
+    }
+    
+    @Test
+    void rejectsTamperedValues() {
+        String stored = encryptionUtil.encrypt("Visa 4242");
+        int middle = stored.length() / 2;
+        String tampered = stored.substring(0, middle)
+                + (stored.charAt(middle) == 'A' ? 'B' : 'A') + stored.substring(middle + 1);
+        assertThrows(RuntimeException.class, () -> encryptionUtil.decrypt(tampered));
+    }
+    
+    private EncryptionUtil encryptionUtil(String activeCipher) throws GeneralSecurityException {
+        EncryptionUtil util = new EncryptionUtil();
+        ReflectionTestUtils.setField(util, "aesGcmCipher", AesGcmFieldCipherTest.cipher(PASSWORD, ""));
+        ReflectionTestUtils.setField(util, "jasyptCipher", jasypt);
+        ReflectionTestUtils.setField(util, "activeCipher", activeCipher);
+        return util;
+    }
+}
@@ -36,9 +36,12 @@ CREATE TABLE expenses (
     amount DECIMAL(10, 2) NOT NULL,
     description VARCHAR(500),
     expense_date DATE NOT NULL,
-    payment_method VARCHAR(50),
+    payment_method VARCHAR(255),
     location VARCHAR(255),
     notes TEXT,
+    -- Set by the anomaly detector when the expense is saved
+    anomaly_score DOUBLE,
+    anomaly_reasons VARCHAR(50),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
@@ -49,7 +52,9 @@ CREATE TABLE expenses (
     INDEX idx_expense_date (expense_date),
     INDEX idx_user_date (user_id, expense_date),
     INDEX idx_user_category (user_id, category_id),
-    INDEX idx_user_date_category (user_id, expense_date, category_id)
+    INDEX idx_user_date_category (user_id, expense_date, category_id),
+    -- Keyword search with search.backend=mysql
+    FULLTEXT INDEX ft_expense_text (description, location, notes)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Budgets Table
@@ -70,6 +75,128 @@ CREATE TABLE budgets (
     INDEX idx_period (period)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Category Rules (keyword -> category, per user)
+CREATE TABLE category_rules (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    pattern VARCHAR(100) NOT NULL,
+    category_id BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES expense_categories(id),
+    INDEX idx_rule_user (user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Daily Expense Rollups (maintained incrementally by expense writes)
+CREATE TABLE expense_daily_rollup (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    expense_date DATE NOT NULL,
+    category_id BIGINT NOT NULL,
+    total_amount DECIMAL(14, 2) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES expense_categories(id),
+    UNIQUE KEY uk_rollup_user_date_category (user_id, expense_date, category_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Expense Amount Bins (per-day amount histograms per user and category, for percentiles)
+CREATE TABLE expense_amount_bins (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    expense_date DATE NOT NULL,
+    category_id BIGINT NOT NULL,
+    bin_index INT NOT NULL,
+    bin_count BIGINT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES expense_categories(id),
+    UNIQUE KEY uk_amount_bin_user_date_category_bin (user_id, expense_date, category_id, bin_index)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Budget Spend Counters (running spend per user, period and category)
+CREATE TABLE budget_spend_counters (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    period VARCHAR(20) NOT NULL,
+    period_start DATE NOT NULL,
+    category_id BIGINT NOT NULL,
+    total_amount DECIMAL(14, 2) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES expense_categories(id),
+    UNIQUE KEY uk_spend_user_period_category (user_id, period, period_start, category_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Budget Alerts (one row per budget, period and crossed threshold)
+CREATE TABLE budget_alerts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    budget_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    period VARCHAR(20) NOT NULL,
+    period_start DATE NOT NULL,
+    threshold INT NOT NULL,
+    spent DECIMAL(14, 2) NOT NULL,
+    limit_amount DECIMAL(10, 2) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (budget_id) REFERENCES budgets(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_alert_budget_period_threshold (budget_id, period_start, threshold),
+    INDEX idx_alert_user_created (user_id, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Recurring Merchants (per-merchant state of the recurring-expense detector)
+CREATE TABLE recurring_merchants (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    merchant_key VARCHAR(100) NOT NULL,
+    merchant_name VARCHAR(255),
+    category_id BIGINT NOT NULL,
+    first_date DATE NOT NULL,
+    last_date DATE NOT NULL,
+    occurrences INT NOT NULL,
+    recent_dates VARCHAR(255) NOT NULL,
+    interval_count INT NOT NULL,
+    period_days DOUBLE NOT NULL,
+    period_deviation DOUBLE NOT NULL,
+    amount_mean DOUBLE NOT NULL,
+    amount_m2 DOUBLE NOT NULL,
+    last_amount DECIMAL(10, 2) NOT NULL,
+    recurring BOOLEAN NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES expense_categories(id),
+    UNIQUE KEY uk_recurring_user_merchant (user_id, merchant_key),
+    INDEX idx_recurring_user_flag (user_id, recurring)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Recurring Watermarks (last expense id folded per user)
+CREATE TABLE recurring_watermarks (
+    user_id BIGINT PRIMARY KEY,
+    last_expense_id BIGINT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Forecast Models (fitted Holt-Winters state per user and category)
+CREATE TABLE forecast_models (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    fitted_through DATE NOT NULL,
+    alpha DOUBLE NOT NULL,
+    beta DOUBLE NOT NULL,
+    gamma DOUBLE NOT NULL,
+    level DOUBLE NOT NULL,
+    trend DOUBLE NOT NULL,
+    seasonal VARCHAR(255) NOT NULL,
+    residual_std_dev DOUBLE NOT NULL,
+    fitted_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES expense_categories(id),
+    UNIQUE KEY uk_forecast_user_category (user_id, category_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Insert Default Categories
 INSERT INTO expense_categories (name, description, icon) VALUES
 ('Food', 'Restaurants, groceries, and dining', '🍔'),
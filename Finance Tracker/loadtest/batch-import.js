@@ -0,0 +1,89 @@
+// Import throughput of POST /api/expenses/batch against the same rows sent
+// one by one to POST /api/expenses. Each VU registers its own user and, per
+// iteration, imports ROWS expenses both ways; single_rows_per_sec and
+// batch_rows_per_sec hold the throughput of each path.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=4 -e ITERATIONS=3 -e ROWS=2000 loadtest/batch-import.js
+
+import http from 'k6/http'
+import { check } from 'k6'
+import { Trend } from 'k6/metrics'
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080'
+const VUS = parseInt(__ENV.VUS || '4')
+const ITERATIONS = parseInt(__ENV.ITERATIONS || '3')
+const ROWS = parseInt(__ENV.ROWS || '2000')
+
+export const options = {
+  setupTimeout: '5m',
+  scenarios: {
+    imports: {
+      executor: 'per-vu-iterations',
+      vus: VUS,
+      iterations: ITERATIONS,
+      maxDuration: '1h'
+    }
+  },
+  summaryTrendStats: ['avg', 'min', 'p(50)', 'max']
+}
+
+const singleRowsPerSec = new Trend('single_rows_per_sec')
+const batchRowsPerSec = new Trend('batch_rows_per_sec')
+
+function isoDate(daysAgo) {
+  const date = new Date(Date.now() - daysAgo * 24 * 3600 * 1000)
+  return date.toISOString().substring(0, 10)
+}
+
+function headers(token) {
+  return { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` }
+}
+
+function randomRows(categories) {
+  const rows = []
+  for (let i = 0; i < ROWS; i++) {
+    rows.push({
+      categoryId: categories[Math.floor(Math.random() * categories.length)],
+      amount: (Math.random() * 200 + 1).toFixed(2),
+      description: 'import load test',
+      expenseDate: isoDate(Math.floor(Math.random() * 365)),
+      paymentMethod: 'Card 4242'
+    })
+  }
+  return rows
+}
+
+export function setup() {
+  const categories = http.get(`${BASE_URL}/api/categories`).json().map((category) => category.id)
+  const runId = Date.now()
+  const tokens = []
+  for (let i = 0; i < VUS; i++) {
+    const username = `import_${runId}_${i}`
+    const res = http.post(`${BASE_URL}/api/auth/register`, JSON.stringify({
+      username,
+      email: `${username}@example.com`,
+      password: 'loadtest123'
+    }), { headers: { 'Content-Type': 'application/json' } })
+    check(res, { registered: (r) => r.status === 200 || r.status === 201 })
+    tokens.push(res.json('token'))
+  }
+  return { tokens, categories }
+}
+
+export default function (data) {
+  const token = data.tokens[(__VU - 1) % data.tokens.length]
+
+  let started = Date.now()
+  for (const row of randomRows(data.categories)) {
+    const res = http.post(`${BASE_URL}/api/expenses`, JSON.stringify(row),
+      { headers: headers(token), tags: { op: 'single' } })
+    check(res, { 'create ok': (r) => r.status === 200 || r.status === 201 })
+  }
+  singleRowsPerSec.add(ROWS * 1000 / Math.max(1, Date.now() - started))
+
+  started = Date.now()
+  const res = http.post(`${BASE_URL}/api/expenses/batch`, JSON.stringify(randomRows(data.categories)),
+    { headers: headers(token), timeout: '5m', tags: { op: 'batch' } })
+  check(res, { 'import ok': (r) => r.status === 200 })
+  batchRowsPerSec.add(ROWS * 1000 / Math.max(1, Date.now() - started))
+}
@@ -0,0 +1,102 @@
+// Budget status latency while expense history grows. Each VU registers a
+// user with one budget per category and period, then alternates between
+// importing another slice of history and timing GET /api/budgets/status.
+// status_latency_step_N holds the calls made with N + 1 slices imported,
+// so flat percentiles across the steps mean status does not scan history.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=10 -e STEPS=5 -e ROWS_PER_STEP=10000 loadtest/budget-status.js
+
+import http from 'k6/http'
+import { check } from 'k6'
+import { Trend } from 'k6/metrics'
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080'
+const VUS = parseInt(__ENV.VUS || '10')
+const STEPS = parseInt(__ENV.STEPS || '5')
+const ROWS_PER_STEP = parseInt(__ENV.ROWS_PER_STEP || '10000')
+const CALLS_PER_STEP = parseInt(__ENV.CALLS_PER_STEP || '200')
+const BATCH_SIZE = 10000
+const PERIODS = ['WEEKLY', 'MONTHLY', 'YEARLY']
+
+export const options = {
+  setupTimeout: '5m',
+  scenarios: {
+    growth: {
+      executor: 'per-vu-iterations',
+      vus: VUS,
+      iterations: STEPS,
+      maxDuration: '1h'
+    }
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max']
+}
+
+const stepLatency = []
+for (let step = 0; step < STEPS; step++) {
+  stepLatency.push(new Trend(`status_latency_step_${step}`, true))
+}
+
+function isoDate(daysAgo) {
+  const date = new Date(Date.now() - daysAgo * 24 * 3600 * 1000)
+  return date.toISOString().substring(0, 10)
+}
+
+function headers(token) {
+  return { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` }
+}
+
+export function setup() {
+  const categories = http.get(`${BASE_URL}/api/categories`).json().map((category) => category.id)
+  const runId = Date.now()
+  const tokens = []
+  for (let i = 0; i < VUS; i++) {
+    const username = `budget_${runId}_${i}`
+    const res = http.post(`${BASE_URL}/api/auth/register`, JSON.stringify({
+      username,
+      email: `${username}@example.com`,
+      password: 'loadtest123'
+    }), { headers: { 'Content-Type': 'application/json' } })
+    check(res, { registered: (r) => r.status === 200 || r.status === 201 })
+    const token = res.json('token')
+    for (const categoryId of categories) {
+      for (const period of PERIODS) {
+        const budget = http.post(`${BASE_URL}/api/budgets`, JSON.stringify({
+          categoryId,
+          amount: '500.00',
+          period,
+          startDate: isoDate(3 * 365)
+        }), { headers: headers(token) })
+        check(budget, { 'budget created': (r) => r.status === 200 || r.status === 201 })
+      }
+    }
+    tokens.push(token)
+  }
+  return { tokens, categories }
+}
+
+export default function (data) {
+  const token = data.tokens[(__VU - 1) % data.tokens.length]
+  const step = __ITER
+
+  // Grow the history, spread over the last three years
+  for (let imported = 0; imported < ROWS_PER_STEP; imported += BATCH_SIZE) {
+    const rows = []
+    for (let i = 0; i < Math.min(BATCH_SIZE, ROWS_PER_STEP - imported); i++) {
+      rows.push({
+        categoryId: data.categories[Math.floor(Math.random() * data.categories.length)],
+        amount: (Math.random() * 100 + 1).toFixed(2),
+        description: 'budget load test',
+        expenseDate: isoDate(Math.floor(Math.random() * 3 * 365))
+      })
+    }
+    const res = http.post(`${BASE_URL}/api/expenses/batch`, JSON.stringify(rows),
+      { headers: headers(token), timeout: '5m', tags: { op: 'import' } })
+    check(res, { 'import ok': (r) => r.status === 200 })
+  }
+
+  for (let i = 0; i < CALLS_PER_STEP; i++) {
+    const res = http.get(`${BASE_URL}/api/budgets/status`, { headers: headers(token), tags: { op: 'status' } })
+    check(res, { 'status ok': (r) => r.status === 200 })
+    stepLatency[step].add(res.timings.duration)
+  }
+}
@@ -0,0 +1,94 @@
+// Mixed list/create/analytics workload for comparing the platform-thread
+// and virtual-thread deployment modes. See the "Load Testing" section of
+// the README for how to run both modes.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=400 -e DURATION=2m loadtest/mixed-workload.js
+
+import http from 'k6/http'
+import { check } from 'k6'
+import { Trend } from 'k6/metrics'
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080'
+const VUS = parseInt(__ENV.VUS || '400')
+const DURATION = __ENV.DURATION || '2m'
+const USERS = parseInt(__ENV.USERS || '20')
+const SEED_EXPENSES = parseInt(__ENV.SEED_EXPENSES || '2000')
+
+export const options = {
+  setupTimeout: '5m',
+  scenarios: {
+    mixed: {
+      executor: 'constant-vus',
+      vus: VUS,
+      duration: DURATION
+    }
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max']
+}
+
+const listLatency = new Trend('list_latency', true)
+const createLatency = new Trend('create_latency', true)
+const analyticsLatency = new Trend('analytics_latency', true)
+
+function isoDate(daysAgo) {
+  const date = new Date(Date.now() - daysAgo * 24 * 3600 * 1000)
+  return date.toISOString().substring(0, 10)
+}
+
+function randomExpense(categories) {
+  return {
+    categoryId: categories[Math.floor(Math.random() * categories.length)],
+    amount: (Math.random() * 200 + 1).toFixed(2),
+    description: 'load test',
+    expenseDate: isoDate(Math.floor(Math.random() * 365)),
+    paymentMethod: 'Card 4242'
+  }
+}
+
+export function setup() {
+  const categories = http.get(`${BASE_URL}/api/categories`).json().map((category) => category.id)
+  const runId = Date.now()
+  const tokens = []
+  for (let i = 0; i < USERS; i++) {
+    const username = `load_${runId}_${i}`
+    const res = http.post(`${BASE_URL}/api/auth/register`, JSON.stringify({
+      username,
+      email: `${username}@example.com`,
+      password: 'loadtest123'
+    }), { headers: { 'Content-Type': 'application/json' } })
+    check(res, { registered: (r) => r.status === 200 || r.status === 201 })
+    const token = res.json('token')
+    const rows = []
+    for (let j = 0; j < SEED_EXPENSES; j++) {
+      rows.push(randomExpense(categories))
+    }
+    http.post(`${BASE_URL}/api/expenses/batch`, JSON.stringify(rows), { headers: headers(token) })
+    tokens.push(token)
+  }
+  return { tokens, categories }
+}
+
+function headers(token) {
+  return { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` }
+}
+
+// 60% list, 25% create, 15% analytics
+export default function (data) {
+  const token = data.tokens[__VU % data.tokens.length]
+  const roll = Math.random()
+  if (roll < 0.6) {
+    const res = http.get(`${BASE_URL}/api/expenses/page?limit=50`, { headers: headers(token), tags: { op: 'list' } })
+    check(res, { 'list ok': (r) => r.status === 200 })
+    listLatency.add(res.timings.duration)
+  } else if (roll < 0.85) {
+    const res = http.post(`${BASE_URL}/api/expenses`, JSON.stringify(randomExpense(data.categories)),
+      { headers: headers(token), tags: { op: 'create' } })
+    check(res, { 'create ok': (r) => r.status === 201 })
+    createLatency.add(res.timings.duration)
+  } else {
+    const res = http.get(`${BASE_URL}/api/analytics?startDate=${isoDate(90)}&endDate=${isoDate(0)}`,
+      { headers: headers(token), tags: { op: 'analytics' } })
+    check(res, { 'analytics ok': (r) => r.status === 200 })
+    analyticsLatency.add(res.timings.duration)
+  }
+}